@@ -12,14 +12,11 @@ import com.vaadin.flow.component.page.Page;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.access.annotation.Secured;
 
 import com.example.application.views.MainLayout;
@@ -37,12 +34,14 @@ public class DBSchemaDesignerView extends VerticalLayout {
     private static final Logger logger = LoggerFactory.getLogger(DBSchemaDesignerView.class);
     private static final ObjectMapper objectMapper = new ObjectMapper();
     
-    private final JdbcTemplate jdbcTemplate;
+    private final SchemaCatalog schemaCatalog;
     private Div designerContainer;
 
     @Autowired
-    public DBSchemaDesignerView(JdbcTemplate jdbcTemplate) {
-        this.jdbcTemplate = jdbcTemplate;
+    public DBSchemaDesignerView(SchemaCatalog schemaCatalog) {
+        this.schemaCatalog = schemaCatalog;
+        // Load the catalog while the designer opens, so the first table lookup is served from memory
+        schemaCatalog.warmUp();
         setSizeFull();
         setPadding(false);
         setSpacing(false);
@@ -89,51 +88,42 @@ public class DBSchemaDesignerView extends VerticalLayout {
     }
 
     /**
-     * Client callable method to fetch table schema using DESCRIBE query
+     * Client callable method to fetch table schema from the schema catalog
      */
     @ClientCallable
     public void getTableSchema(String tableName) {
         try {
-            // Execute DESCRIBE query to get table schema
-            List<Map<String, Object>> columns = describeTable(tableName);
+            // Served from the cached catalog, no query per table
+            Optional<SchemaCatalog.Table> table = tableName != null ? schemaCatalog.table(tableName.trim()) : Optional.empty();
             
-            if (columns.isEmpty()) {
+            if (table.isEmpty() || table.get().columns().isEmpty()) {
                 showNotification("Table not found or no columns available", true);
                 return;
             }
             
             // Convert columns to format expected by the client
             JsonObject tableData = Json.createObject();
-            tableData.put("name", tableName);
+            tableData.put("name", table.get().name());
             
             JsonArray columnsArray = Json.createArray();
             int index = 0;
             
-            for (Map<String, Object> column : columns) {
+            for (SchemaCatalog.Column column : table.get().columns()) {
                 JsonObject columnObj = Json.createObject();
                 
-                // Extract column details
-                String fieldName = String.valueOf(column.get("Field"));
-                String fieldType = String.valueOf(column.get("Type"));
-                String keyType = String.valueOf(column.get("Key"));
-                String nullableValue = String.valueOf(column.get("Null"));
-                
-                columnObj.put("name", fieldName);
-                columnObj.put("type", fieldType);
-                
-                // Check if column is a primary key
-                boolean isPrimaryKey = "PRI".equals(keyType);
-                columnObj.put("primaryKey", isPrimaryKey);
-                
-                // Check if column is nullable
-                boolean isNullable = "YES".equals(nullableValue);
-                columnObj.put("nullable", isNullable);
+                columnObj.put("name", column.name());
+                columnObj.put("type", column.type());
+                columnObj.put("primaryKey", column.primaryKey());
+                columnObj.put("foreignKey", column.foreignKey());
+                columnObj.put("nullable", column.nullable());
                 
                 // Add to columns array
                 columnsArray.set(index++, columnObj);
             }
             
             tableData.put("columns", columnsArray);
+            tableData.put("foreignKeys", foreignKeysToJson(table.get()));
+            tableData.put("indexes", indexesToJson(table.get()));
             
             // Send the table schema back to the client
             UI.getCurrent().getPage().executeJs("window.sendTableSchemaToIframe($0)", tableData.toJson());
@@ -181,22 +171,46 @@ public class DBSchemaDesignerView extends VerticalLayout {
     }
 
     /**
-     * Execute DESCRIBE query to get table columns
+     * Foreign keys of a table with the columns they reference
      */
-    private List<Map<String, Object>> describeTable(String tableName) {
-        // Sanitize table name to prevent SQL injection
-        if (!tableName.matches("[a-zA-Z0-9_]+")) {
-            throw new IllegalArgumentException("Invalid table name format");
+    private JsonArray foreignKeysToJson(SchemaCatalog.Table table) {
+        JsonArray foreignKeys = Json.createArray();
+        int index = 0;
+        for (SchemaCatalog.ForeignKey foreignKey : table.foreignKeys()) {
+            JsonObject foreignKeyObj = Json.createObject();
+            foreignKeyObj.put("name", foreignKey.name());
+            foreignKeyObj.put("referencedTable", foreignKey.referencedTable());
+            JsonArray columns = Json.createArray();
+            JsonArray referencedColumns = Json.createArray();
+            for (int i = 0; i < foreignKey.columns().size(); i++) {
+                columns.set(i, foreignKey.columns().get(i));
+                referencedColumns.set(i, String.valueOf(foreignKey.referencedColumns().get(i)));
+            }
+            foreignKeyObj.put("columns", columns);
+            foreignKeyObj.put("referencedColumns", referencedColumns);
+            foreignKeys.set(index++, foreignKeyObj);
         }
-        
-        // Execute DESCRIBE query
-        String sql = "DESCRIBE " + tableName;
-        try {
-            return jdbcTemplate.queryForList(sql);
-        } catch (Exception e) {
-            logger.error("Error executing DESCRIBE query for table: {}", tableName, e);
-            return new ArrayList<>();
+        return foreignKeys;
+    }
+
+    /**
+     * Indexes of a table with their columns in index order
+     */
+    private JsonArray indexesToJson(SchemaCatalog.Table table) {
+        JsonArray indexes = Json.createArray();
+        int index = 0;
+        for (SchemaCatalog.Index tableIndex : table.indexes()) {
+            JsonObject indexObj = Json.createObject();
+            indexObj.put("name", tableIndex.name());
+            indexObj.put("unique", tableIndex.unique());
+            JsonArray columns = Json.createArray();
+            for (int i = 0; i < tableIndex.columns().size(); i++) {
+                columns.set(i, tableIndex.columns().get(i));
+            }
+            indexObj.put("columns", columns);
+            indexes.set(index++, indexObj);
         }
+        return indexes;
     }
 
     /**
@@ -0,0 +1,419 @@
+package com.example.application.views.dbschemadesigner;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory catalog of the tables of the application's schema, shared by all sessions of the schema designer.
+ *
+ * The whole catalog (tables, columns, primary keys, foreign keys and indexes) is read in a handful of bulk
+ * queries: one {@link DatabaseMetaData} call each for tables and columns, and one {@code information_schema}
+ * query each for keys and indexes. Databases without those views fall back to the per-table metadata calls,
+ * still only while loading. Lookups of single tables are then answered from memory.
+ *
+ * The catalog is loaded on first use and reloaded in the background every {@code refreshInterval}; lookups
+ * keep using the previous catalog while a reload runs or if it fails. A lookup of a table the catalog doesn't
+ * know reloads it right away, at most once every {@link #MISS_RELOAD_INTERVAL}, so new tables show up
+ * without waiting for the next refresh.
+ */
+@Service
+public class SchemaCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaCatalog.class);
+
+    private static final Duration MISS_RELOAD_INTERVAL = Duration.ofSeconds(10);
+
+    // MySQL and MariaDB, where key columns name the column they reference; every primary key there is called
+    // PRIMARY, so the referenced key can't be found by constraint name. Other databases fall back to
+    // DatabaseMetaData.getPrimaryKeys and getImportedKeys
+    private static final String KEYS_QUERY =
+        "SELECT tc.TABLE_NAME, tc.CONSTRAINT_NAME, tc.CONSTRAINT_TYPE, kcu.COLUMN_NAME, kcu.ORDINAL_POSITION, " +
+        "       kcu.REFERENCED_TABLE_NAME AS REFERENCED_TABLE, kcu.REFERENCED_COLUMN_NAME AS REFERENCED_COLUMN " +
+        "FROM information_schema.TABLE_CONSTRAINTS tc " +
+        "JOIN information_schema.KEY_COLUMN_USAGE kcu " +
+        "  ON kcu.CONSTRAINT_SCHEMA = tc.CONSTRAINT_SCHEMA AND kcu.CONSTRAINT_NAME = tc.CONSTRAINT_NAME " +
+        "  AND kcu.TABLE_NAME = tc.TABLE_NAME " +
+        "WHERE tc.TABLE_SCHEMA = ? AND tc.CONSTRAINT_TYPE IN ('PRIMARY KEY', 'FOREIGN KEY') " +
+        "ORDER BY tc.TABLE_NAME, tc.CONSTRAINT_NAME, kcu.ORDINAL_POSITION";
+
+    // MySQL and MariaDB; other databases fall back to DatabaseMetaData.getIndexInfo
+    private static final String INDEXES_QUERY =
+        "SELECT TABLE_NAME, INDEX_NAME, NON_UNIQUE, COLUMN_NAME FROM information_schema.STATISTICS " +
+        "WHERE TABLE_SCHEMA = ? ORDER BY TABLE_NAME, INDEX_NAME, SEQ_IN_INDEX";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ScheduledExecutorService refresher;
+    private volatile Catalog catalog;
+    private CompletableFuture<Catalog> loading;
+
+    @Autowired
+    public SchemaCatalog(JdbcTemplate jdbcTemplate,
+                         @Value("${db-schema-designer.catalog.refresh-interval:PT10M}") Duration refreshInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "schema-catalog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(() -> {
+            if (catalog != null) {
+                reload();
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public record Column(String name, String type, boolean nullable, boolean primaryKey, boolean foreignKey) {}
+
+    public record ForeignKey(String name, List<String> columns, String referencedTable, List<String> referencedColumns) {}
+
+    public record Index(String name, boolean unique, List<String> columns) {}
+
+    public record Table(String name, String type, List<Column> columns, List<String> primaryKey,
+                        List<ForeignKey> foreignKeys, List<Index> indexes) {}
+
+    private record Catalog(Map<String, Table> tables, Instant loadedAt) {}
+
+    private record ColumnInfo(String type, boolean nullable) {}
+
+    /**
+     * Looks up a table by name, ignoring case. Loads the catalog if this is the first lookup, and reloads it if
+     * the table is missing from a catalog that isn't brand new, e.g. because the table was just created.
+     */
+    public Optional<Table> table(String name) {
+        Catalog current = catalog();
+        Table table = current.tables().get(name);
+        if (table == null && current.loadedAt().isBefore(Instant.now().minus(MISS_RELOAD_INTERVAL))) {
+            logger.debug("Table {} not in the schema catalog, reloading it", name);
+            reload();
+            table = catalog().tables().get(name);
+        }
+        return Optional.ofNullable(table);
+    }
+
+    /**
+     * All tables and views of the schema, by name.
+     */
+    public List<Table> tables() {
+        return List.copyOf(catalog().tables().values());
+    }
+
+    /**
+     * When the catalog in use was read from the database.
+     */
+    public Instant loadedAt() {
+        return catalog().loadedAt();
+    }
+
+    /**
+     * Starts loading the catalog in the background if it isn't loaded yet, so the first lookup doesn't wait.
+     */
+    public void warmUp() {
+        if (catalog == null) {
+            refresher.execute(this::catalog);
+        }
+    }
+
+    /**
+     * Reloads the catalog in the background, e.g. after the schema was changed.
+     */
+    public void refresh() {
+        refresher.execute(this::reload);
+    }
+
+    private Catalog catalog() {
+        Catalog current = catalog;
+        if (current != null) {
+            return current;
+        }
+        try {
+            return load().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private void reload() {
+        try {
+            load().join();
+        } catch (CompletionException e) {
+            // keep serving the previous catalog
+            logger.warn("Reloading the schema catalog failed: {}", e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Reads the catalog unless a read is already running, in which case that one is shared.
+     */
+    private CompletableFuture<Catalog> load() {
+        CompletableFuture<Catalog> future;
+        synchronized (this) {
+            if (loading != null) {
+                return loading;
+            }
+            future = new CompletableFuture<>();
+            loading = future;
+        }
+        try {
+            long start = System.nanoTime();
+            Catalog loaded = new Catalog(Collections.unmodifiableMap(jdbcTemplate.execute(
+                (ConnectionCallback<Map<String, Table>>) this::readTables)), Instant.now());
+            catalog = loaded;
+            logger.info("Schema catalog of {} tables loaded in {} ms", loaded.tables().size(),
+                (System.nanoTime() - start) / 1_000_000);
+            future.complete(loaded);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        } finally {
+            synchronized (this) {
+                loading = null;
+            }
+        }
+        return future;
+    }
+
+    private Map<String, Table> readTables(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String catalogName = connection.getCatalog();
+        String schemaName = connection.getSchema();
+        // information_schema calls MySQL's databases schemas
+        String tableSchema = schemaName != null ? schemaName : catalogName;
+
+        Map<String, TableBuilder> tables = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        try (ResultSet rs = metaData.getTables(catalogName, schemaName, "%", new String[] {"TABLE", "VIEW"})) {
+            while (rs.next()) {
+                String name = rs.getString("TABLE_NAME");
+                tables.put(name, new TableBuilder(name, rs.getString("TABLE_TYPE")));
+            }
+        }
+        try (ResultSet rs = metaData.getColumns(catalogName, schemaName, "%", "%")) {
+            while (rs.next()) {
+                TableBuilder table = tables.get(rs.getString("TABLE_NAME"));
+                if (table != null) {
+                    table.columns.put(rs.getString("COLUMN_NAME"),
+                        new ColumnInfo(typeOf(rs), rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls));
+                }
+            }
+        }
+        if (!readKeys(connection, tableSchema, tables)) {
+            readKeysPerTable(metaData, catalogName, schemaName, tables);
+        }
+        if (!readIndexes(connection, tableSchema, tables)) {
+            readIndexesPerTable(metaData, catalogName, schemaName, tables);
+        }
+
+        Map<String, Table> built = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        tables.forEach((name, table) -> built.put(name, table.build()));
+        return built;
+    }
+
+    /**
+     * Column type as DESCRIBE shows it, e.g. {@code VARCHAR(255)} or {@code DECIMAL(10,2)}.
+     */
+    private static String typeOf(ResultSet column) throws SQLException {
+        String typeName = column.getString("TYPE_NAME");
+        int size = column.getInt("COLUMN_SIZE");
+        switch (column.getInt("DATA_TYPE")) {
+            case Types.CHAR, Types.VARCHAR, Types.NCHAR, Types.NVARCHAR, Types.BINARY, Types.VARBINARY:
+                return typeName + "(" + size + ")";
+            case Types.DECIMAL, Types.NUMERIC:
+                return typeName + "(" + size + "," + column.getInt("DECIMAL_DIGITS") + ")";
+            default:
+                return typeName;
+        }
+    }
+
+    private boolean readKeys(Connection connection, String tableSchema, Map<String, TableBuilder> tables) {
+        try (PreparedStatement statement = connection.prepareStatement(KEYS_QUERY)) {
+            statement.setString(1, tableSchema);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    TableBuilder table = tables.get(rs.getString("TABLE_NAME"));
+                    if (table == null) {
+                        continue;
+                    }
+                    String column = rs.getString("COLUMN_NAME");
+                    if ("PRIMARY KEY".equals(rs.getString("CONSTRAINT_TYPE"))) {
+                        table.primaryKey.add(column);
+                    } else {
+                        table.foreignKey(rs.getString("CONSTRAINT_NAME"), rs.getString("REFERENCED_TABLE"))
+                            .add(column, rs.getString("REFERENCED_COLUMN"));
+                    }
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            logger.info("No information_schema keys, reading keys per table: {}", e.getMessage());
+            tables.values().forEach(TableBuilder::clearKeys);
+            return false;
+        }
+    }
+
+    private void readKeysPerTable(DatabaseMetaData metaData, String catalogName, String schemaName,
+                                  Map<String, TableBuilder> tables) throws SQLException {
+        for (TableBuilder table : tables.values()) {
+            try (ResultSet rs = metaData.getPrimaryKeys(catalogName, schemaName, table.name)) {
+                Map<Integer, String> columns = new TreeMap<>();
+                while (rs.next()) {
+                    columns.put(rs.getInt("KEY_SEQ"), rs.getString("COLUMN_NAME"));
+                }
+                table.primaryKey.addAll(columns.values());
+            }
+            try (ResultSet rs = metaData.getImportedKeys(catalogName, schemaName, table.name)) {
+                while (rs.next()) {
+                    String name = rs.getString("FK_NAME");
+                    table.foreignKey(name != null ? name : "fk_" + rs.getString("PKTABLE_NAME"),
+                            rs.getString("PKTABLE_NAME"))
+                        .add(rs.getString("FKCOLUMN_NAME"), rs.getString("PKCOLUMN_NAME"));
+                }
+            }
+        }
+    }
+
+    private boolean readIndexes(Connection connection, String tableSchema, Map<String, TableBuilder> tables) {
+        try (PreparedStatement statement = connection.prepareStatement(INDEXES_QUERY)) {
+            statement.setString(1, tableSchema);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    TableBuilder table = tables.get(rs.getString("TABLE_NAME"));
+                    if (table != null) {
+                        table.index(rs.getString("INDEX_NAME"), rs.getInt("NON_UNIQUE") == 0)
+                            .add(rs.getString("COLUMN_NAME"));
+                    }
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            logger.info("No information_schema statistics, reading indexes per table: {}", e.getMessage());
+            tables.values().forEach(table -> table.indexes.clear());
+            return false;
+        }
+    }
+
+    private void readIndexesPerTable(DatabaseMetaData metaData, String catalogName, String schemaName,
+                                     Map<String, TableBuilder> tables) throws SQLException {
+        for (TableBuilder table : tables.values()) {
+            if (!"TABLE".equals(table.type)) {
+                continue;
+            }
+            // approximate: statistics may be stale, which is fine for a designer
+            try (ResultSet rs = metaData.getIndexInfo(catalogName, schemaName, table.name, false, true)) {
+                while (rs.next()) {
+                    String index = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (index != null && column != null) {
+                        table.index(index, !rs.getBoolean("NON_UNIQUE")).add(column);
+                    }
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Collects a table while the catalog is read; columns keep their database order.
+     */
+    private static final class TableBuilder {
+        private final String name;
+        private final String type;
+        private final Map<String, ColumnInfo> columns = new LinkedHashMap<>();
+        private final List<String> primaryKey = new ArrayList<>();
+        private final Map<String, ForeignKeyBuilder> foreignKeys = new LinkedHashMap<>();
+        private final Map<String, IndexBuilder> indexes = new LinkedHashMap<>();
+
+        TableBuilder(String name, String type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        ForeignKeyBuilder foreignKey(String name, String referencedTable) {
+            return foreignKeys.computeIfAbsent(name, key -> new ForeignKeyBuilder(referencedTable));
+        }
+
+        IndexBuilder index(String name, boolean unique) {
+            return indexes.computeIfAbsent(name, key -> new IndexBuilder(unique));
+        }
+
+        void clearKeys() {
+            primaryKey.clear();
+            foreignKeys.clear();
+        }
+
+        Table build() {
+            List<String> foreignKeyColumns = new ArrayList<>();
+            List<ForeignKey> builtForeignKeys = new ArrayList<>();
+            foreignKeys.forEach((fkName, fk) -> {
+                foreignKeyColumns.addAll(fk.columns);
+                builtForeignKeys.add(new ForeignKey(fkName, List.copyOf(fk.columns), fk.referencedTable,
+                    List.copyOf(fk.referencedColumns)));
+            });
+            List<Column> builtColumns = new ArrayList<>();
+            columns.forEach((columnName, column) -> builtColumns.add(new Column(columnName, column.type(),
+                column.nullable(), primaryKey.contains(columnName), foreignKeyColumns.contains(columnName))));
+            List<Index> builtIndexes = new ArrayList<>();
+            indexes.forEach((indexName, index) -> builtIndexes.add(new Index(indexName, index.unique, List.copyOf(index.columns))));
+            return new Table(name, type, List.copyOf(builtColumns), List.copyOf(primaryKey), List.copyOf(builtForeignKeys),
+                List.copyOf(builtIndexes));
+        }
+    }
+
+    private static final class ForeignKeyBuilder {
+        private final String referencedTable;
+        private final List<String> columns = new ArrayList<>();
+        private final List<String> referencedColumns = new ArrayList<>();
+
+        ForeignKeyBuilder(String referencedTable) {
+            this.referencedTable = referencedTable;
+        }
+
+        void add(String column, String referencedColumn) {
+            columns.add(column);
+            referencedColumns.add(referencedColumn);
+        }
+    }
+
+    private static final class IndexBuilder {
+        private final boolean unique;
+        private final List<String> columns = new ArrayList<>();
+
+        IndexBuilder(boolean unique) {
+            this.unique = unique;
+        }
+
+        void add(String column) {
+            columns.add(column);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.miguno;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jersey request dispatch (matching, filters, resource invocation, entity writing) without any network I/O,
+ * to separate framework overhead from Grizzly's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(3)
+public class JerseyDispatchBenchmark {
+
+  private static final URI BASE_URI = URI.create("http://localhost/");
+  private static final OutputStream DISCARD = new OutputStream() {
+    @Override
+    public void write(int b) {
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+    }
+  };
+
+  private ApplicationHandler handler;
+
+  @Setup
+  public void createApplication() {
+    handler = new ApplicationHandler(App.createResourceConfig(ServerConfig.fromEnvironment()));
+  }
+
+  @Benchmark
+  public int status() throws InterruptedException, ExecutionException {
+    return dispatch("status");
+  }
+
+  @Benchmark
+  public int notFound() throws InterruptedException, ExecutionException {
+    return dispatch("missing");
+  }
+
+  private int dispatch(String path) throws InterruptedException, ExecutionException {
+    ContainerRequest request = new ContainerRequest(BASE_URI, BASE_URI.resolve(path), "GET", null,
+        new MapPropertiesDelegate(), handler.getConfiguration());
+    ContainerResponse response = handler.apply(request, DISCARD).get();
+    return response.getStatus();
+  }
+}
@@ -0,0 +1,67 @@
+package com.miguno;
+
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start: time from {@link App#startServer} to the first successful {@code /status} response, measured once
+ * per freshly forked JVM. Covers Jersey bootstrap and resource registration; for whole-process startup including
+ * JVM boot, see the training run described in the README.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+
+  private static final int PORT = 8125;
+
+  private HttpServer server;
+
+  @TearDown(Level.Iteration)
+  public void stopServer() {
+    if (server != null) {
+      server.shutdownNow();
+    }
+  }
+
+  @Benchmark
+  public int timeToFirstStatus() throws IOException, InterruptedException {
+    server = App.startServer(ServerConfig.fromEnvironment().withAddress("127.0.0.1", PORT));
+    URL status = new URL("http://127.0.0.1:" + PORT + "/status");
+    while (true) {
+      try {
+        HttpURLConnection connection = (HttpURLConnection) status.openConnection();
+        try (InputStream in = connection.getInputStream()) {
+          while (in.read() != -1) {
+            // drain
+          }
+        }
+        if (connection.getResponseCode() == 200) {
+          return connection.getResponseCode();
+        }
+      } catch (IOException e) {
+        // not accepting connections yet
+      }
+      Thread.sleep(1);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package com.miguno;
+
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP round-trips to {@link Status} through an in-process Grizzly server, over keep-alive connections.
+ *
+ * <p>Client and server share one JVM, so throughput keeps climbing for roughly the first 40 seconds while both
+ * sides are compiled; the long warm-up keeps that ramp out of the measured iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 30, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(5)
+public class StatusRoundTripBenchmark {
+
+  private static final int PORT = 8124;
+
+  private HttpServer server;
+  private URL statusUrl;
+
+  @Setup
+  public void startServer() throws IOException {
+    server = App.startServer(ServerConfig.fromEnvironment().withAddress("127.0.0.1", PORT));
+    statusUrl = new URL("http://127.0.0.1:" + PORT + "/status");
+  }
+
+  @TearDown
+  public void stopServer() {
+    server.shutdownNow();
+  }
+
+  @Benchmark
+  public int status() throws IOException {
+    return get(statusUrl);
+  }
+
+  @Benchmark
+  public int statusMetrics() throws IOException {
+    return get(new URL(statusUrl, "status/metrics"));
+  }
+
+  /**
+   * Issues a GET and drains the body so the connection goes back to the keep-alive pool.
+   */
+  private static int get(URL url) throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    int bytes = 0;
+    try (InputStream in = connection.getInputStream()) {
+      byte[] buffer = new byte[512];
+      for (int n; (n = in.read(buffer)) != -1; ) {
+        bytes += n;
+      }
+    }
+    if (connection.getResponseCode() != 200) {
+      throw new IllegalStateException("Unexpected response " + connection.getResponseCode() + " from " + url);
+    }
+    return bytes;
+  }
+}
@@ -0,0 +1,108 @@
+package com.miguno;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Concurrency limit adjusted by additive-increase/multiplicative-decrease (AIMD) on observed latency.
+ *
+ * A request slower than the latency target cuts the limit by {@link #BACKOFF}, but only if it was admitted after
+ * the last cut: the requests already in flight were admitted under the previous limit, so one overload cuts the
+ * limit once rather than once per slow request. A request within the target grows it by {@code 1/limit} while the
+ * limit is actually being used, i.e. by about one per limit's worth of requests. All state is updated with
+ * compare-and-set, without locks.
+ */
+public class AdaptiveLimit {
+
+  static final double BACKOFF = 0.9;
+
+  private static final long NEVER = Long.MIN_VALUE;
+
+  private final AdmissionConfig config;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicLong limitBits;
+  private final AtomicLong lastBackoffNanos = new AtomicLong(NEVER);
+  private final LongAdder admitted = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+
+  public AdaptiveLimit(AdmissionConfig config) {
+    this.config = config;
+    this.limitBits = new AtomicLong(Double.doubleToLongBits(config.initialLimit()));
+  }
+
+  /**
+   * Claims a slot, or returns false if the limit is reached. Every successful call must be paired with
+   * {@link #release(long)}.
+   */
+  public boolean tryAcquire() {
+    int limit = limit();
+    for (int current = inFlight.get(); current < limit; current = inFlight.get()) {
+      if (inFlight.compareAndSet(current, current + 1)) {
+        admitted.increment();
+        return true;
+      }
+    }
+    rejected.increment();
+    return false;
+  }
+
+  public void release(long latencyNanos) {
+    release(latencyNanos, System.nanoTime());
+  }
+
+  void release(long latencyNanos, long nowNanos) {
+    int before = inFlight.getAndDecrement();
+    if (latencyNanos > config.latencyTargetNanos()) {
+      backOff(nowNanos - latencyNanos, nowNanos);
+    } else if (before * 2 >= limit()) {
+      // only grow while at least half the limit is in use, otherwise there is no evidence it is too low
+      update(limit -> Math.min(config.maxLimit(), limit + 1 / limit));
+    }
+  }
+
+  private void backOff(long admittedNanos, long nowNanos) {
+    long last = lastBackoffNanos.get();
+    if (last != NEVER && admittedNanos - last < 0) {
+      // admitted before the last cut, so it was slowed down by a limit that is already gone
+      return;
+    }
+    if (lastBackoffNanos.compareAndSet(last, nowNanos)) {
+      update(limit -> Math.max(config.minLimit(), limit * BACKOFF));
+    }
+  }
+
+  public int limit() {
+    return (int) Double.longBitsToDouble(limitBits.get());
+  }
+
+  public int inFlight() {
+    return inFlight.get();
+  }
+
+  public long admitted() {
+    return admitted.sum();
+  }
+
+  public long rejected() {
+    return rejected.sum();
+  }
+
+  private void update(DoubleUnaryOperator adjustment) {
+    long current;
+    long next;
+    do {
+      current = limitBits.get();
+      next = Double.doubleToLongBits(adjustment.applyAsDouble(Double.longBitsToDouble(current)));
+    } while (current != next && !limitBits.compareAndSet(current, next));
+  }
+
+  void appendJson(StringBuilder json) {
+    json.append("{\"limit\": ").append(limit())
+        .append(", \"inFlight\": ").append(inFlight())
+        .append(", \"admitted\": ").append(admitted())
+        .append(", \"rejected\": ").append(rejected())
+        .append('}');
+  }
+}
@@ -0,0 +1,76 @@
+package com.miguno;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.miguno.ServerConfig.booleanSetting;
+import static com.miguno.ServerConfig.intSetting;
+
+/**
+ * Settings for {@link AdmissionControlFilter}, read like {@link ServerConfig} from {@code server.admission.*}
+ * system properties or {@code SERVER_ADMISSION_*} environment variables.
+ */
+public class AdmissionConfig {
+
+  private final boolean enabled;
+  private final int initialLimit;
+  private final int minLimit;
+  private final int maxLimit;
+  private final long latencyTargetNanos;
+  private final int retryAfterSeconds;
+
+  AdmissionConfig(boolean enabled, int initialLimit, int minLimit, int maxLimit, long latencyTargetNanos,
+                  int retryAfterSeconds) {
+    if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+      throw new IllegalArgumentException(String.format(
+          "server.admission limits must satisfy 1 <= min (%d) <= initial (%d) <= max (%d)",
+          minLimit, initialLimit, maxLimit));
+    }
+    this.enabled = enabled;
+    this.initialLimit = initialLimit;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.latencyTargetNanos = latencyTargetNanos;
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  /**
+   * Reads the configuration, sizing the default limits from the worker pool since requests beyond it only queue.
+   */
+  public static AdmissionConfig fromEnvironment(ServerConfig server) {
+    int workers = server.workerMaxPoolSize();
+    return new AdmissionConfig(
+        booleanSetting("server.admission", true),
+        intSetting("server.admission.initial-limit", workers),
+        intSetting("server.admission.min-limit", 1),
+        intSetting("server.admission.max-limit", workers * 2),
+        TimeUnit.MILLISECONDS.toNanos(intSetting("server.admission.latency-target", 100)),
+        intSetting("server.admission.retry-after", 1));
+  }
+
+  public boolean enabled() {
+    return enabled;
+  }
+
+  public int initialLimit() {
+    return initialLimit;
+  }
+
+  public int minLimit() {
+    return minLimit;
+  }
+
+  public int maxLimit() {
+    return maxLimit;
+  }
+
+  /**
+   * Requests slower than this shrink the concurrency limit, faster ones let it grow.
+   */
+  public long latencyTargetNanos() {
+    return latencyTargetNanos;
+  }
+
+  public int retryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
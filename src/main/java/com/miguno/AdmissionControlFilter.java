@@ -0,0 +1,137 @@
+package com.miguno;
+
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bounds the number of concurrent requests per resource class with an {@link AdaptiveLimit} and rejects the
+ * excess immediately with 503 and {@code Retry-After}, instead of letting it queue for a worker thread.
+ *
+ * Resources annotated with {@link AdmissionExempt} are never rejected and do not count against any limit. An
+ * admitted request gives its slot back in the response filter or, if that never runs (e.g. the resource threw an
+ * unmapped exception), when Jersey reports the request finished.
+ */
+@Priority(Priorities.AUTHENTICATION - 500)
+public class AdmissionControlFilter implements ContainerRequestFilter, ContainerResponseFilter,
+    ApplicationEventListener {
+
+  private static final String ADMISSION_PROPERTY = AdmissionControlFilter.class.getName() + ".admission";
+
+  private final AdmissionConfig config;
+  private final ConcurrentMap<Class<?>, AdaptiveLimit> limits = new ConcurrentHashMap<>();
+
+  @Context
+  private ResourceInfo resourceInfo;
+
+  public AdmissionControlFilter(AdmissionConfig config) {
+    this.config = config;
+  }
+
+  @Override
+  public void filter(ContainerRequestContext requestContext) {
+    Class<?> resource = resourceInfo.getResourceClass();
+    Method method = resourceInfo.getResourceMethod();
+    Admission admission = (Admission) requestContext.getProperty(ADMISSION_PROPERTY);
+    if (resource == null || admission == null || isExempt(resource, method)) {
+      return;
+    }
+
+    AdaptiveLimit limit = limits.get(resource);
+    if (limit == null) {
+      limit = limits.computeIfAbsent(resource, r -> new AdaptiveLimit(config));
+    }
+    if (!limit.tryAcquire()) {
+      requestContext.abortWith(Response.status(Response.Status.SERVICE_UNAVAILABLE)
+          .header(HttpHeaders.RETRY_AFTER, config.retryAfterSeconds())
+          .type(MediaType.APPLICATION_JSON_TYPE)
+          .entity("{\"status\": \"overloaded\"}\n")
+          .build());
+      return;
+    }
+    admission.admit(limit);
+  }
+
+  @Override
+  public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+    Admission admission = (Admission) requestContext.getProperty(ADMISSION_PROPERTY);
+    if (admission != null) {
+      admission.release();
+    }
+  }
+
+  @Override
+  public void onEvent(ApplicationEvent event) {
+  }
+
+  @Override
+  public RequestEventListener onRequest(RequestEvent requestEvent) {
+    return new Admission();
+  }
+
+  private static boolean isExempt(Class<?> resource, Method method) {
+    return resource.isAnnotationPresent(AdmissionExempt.class)
+        || method != null && method.isAnnotationPresent(AdmissionExempt.class);
+  }
+
+  /**
+   * Appends the current limit, in-flight count and admitted/rejected totals per resource class as JSON.
+   */
+  public void appendJson(StringBuilder json) {
+    json.append('{');
+    String separator = "";
+    for (Map.Entry<Class<?>, AdaptiveLimit> entry : limits.entrySet()) {
+      json.append(separator).append('"').append(entry.getKey().getSimpleName()).append("\": ");
+      entry.getValue().appendJson(json);
+      separator = ", ";
+    }
+    json.append('}');
+  }
+
+  /**
+   * The slot held by one request. Kept in the request's listener rather than its properties, since the container
+   * may have recycled the request by the time it is finished.
+   */
+  private static final class Admission implements RequestEventListener {
+    private AdaptiveLimit limit;
+    private long start;
+
+    void admit(AdaptiveLimit limit) {
+      this.limit = limit;
+      this.start = System.nanoTime();
+    }
+
+    void release() {
+      if (limit != null) {
+        limit.release(System.nanoTime() - start);
+        limit = null;
+      }
+    }
+
+    @Override
+    public void onEvent(RequestEvent event) {
+      if (event.getType() == RequestEvent.Type.REQUEST_MATCHED) {
+        event.getContainerRequest().setProperty(ADMISSION_PROPERTY, this);
+      } else if (event.getType() == RequestEvent.Type.FINISHED) {
+        release();
+      }
+    }
+  }
+}
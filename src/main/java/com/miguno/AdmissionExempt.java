@@ -0,0 +1,15 @@
+package com.miguno;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a resource class or method that {@link AdmissionControlFilter} always admits, such as health checks that
+ * must keep answering while other traffic is being shed.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface AdmissionExempt {
+}
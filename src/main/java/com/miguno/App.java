@@ -1,31 +1,238 @@
 package com.miguno;
 
 import org.glassfish.grizzly.http.server.HttpServer;
+import org.glassfish.grizzly.http.server.NetworkListener;
+import org.glassfish.grizzly.http2.Http2AddOn;
+import org.glassfish.grizzly.http2.Http2Configuration;
+import org.glassfish.grizzly.nio.transport.TCPNIOTransport;
+import org.glassfish.grizzly.threadpool.ThreadPoolConfig;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
 import org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpServerFactory;
+import org.glassfish.jersey.media.sse.SseFeature;
 import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.spi.AbstractContainerLifecycleListener;
+import org.glassfish.jersey.server.spi.Container;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
 import java.net.URI;
+import java.net.URL;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
 
 public class App {
 
-  protected static final String BASE_URI = "http://0.0.0.0:8123/";
+  private static final Logger LOGGER = Logger.getLogger(App.class.getName());
+
+  protected static final ServerConfig CONFIG = ServerConfig.fromEnvironment();
+
+  protected static final String BASE_URI = CONFIG.baseUri();
 
   /**
    * Starts Grizzly HTTP server exposing JAX-RS resources defined in this application.
    */
   protected static HttpServer startServer() {
-    // create a resource config that scans for JAX-RS resources and providers in com.miguno package
-    final ResourceConfig rc = new ResourceConfig().packages("com.miguno");
+    return startServer(CONFIG);
+  }
+
+  /**
+   * Starts Grizzly HTTP server with the given thread and queue settings.
+   */
+  protected static HttpServer startServer(ServerConfig config) {
+    return startServer(config, Lifecycle.fromEnvironment());
+  }
+
+  /**
+   * Starts Grizzly HTTP server whose readiness and shutdown are managed by {@code lifecycle}.
+   */
+  protected static HttpServer startServer(ServerConfig config, Lifecycle lifecycle) {
+    final ConnectionMetrics connections = new ConnectionMetrics();
+    final ResourceConfig rc = createResourceConfig(config, connections, lifecycle);
+
+    // create (but do not yet start) a new instance of grizzly http server
+    // exposing the Jersey application at the configured base URI
+    final HttpServer server = GrizzlyHttpServerFactory.createHttpServer(URI.create(config.baseUri()), rc, false);
 
-    // create and start a new instance of grizzly http server
-    // exposing the Jersey application at BASE_URI
-    return GrizzlyHttpServerFactory.createHttpServer(URI.create(BASE_URI), rc);
+    // transport and listener settings only take effect if applied before the server is started
+    for (NetworkListener listener : server.getListeners()) {
+      configureTransport(listener.getTransport(), config);
+      configureListener(listener, config);
+    }
+    connections.attach(server);
+    lifecycle.attach(server, config.port());
+
+    try {
+      server.start();
+    } catch (IOException e) {
+      server.shutdownNow();
+      throw new UncheckedIOException("Failed to start server at " + config.baseUri(), e);
+    }
+    return server;
+  }
+
+  /**
+   * Creates the Jersey application: all JAX-RS resources and providers in com.miguno plus request metrics.
+   */
+  protected static ResourceConfig createResourceConfig(ServerConfig config) {
+    return createResourceConfig(config, new ConnectionMetrics(), Lifecycle.fromEnvironment());
   }
 
-  public static void main(String[] args) {
-    startServer();
+  private static ResourceConfig createResourceConfig(ServerConfig config, ConnectionMetrics connections,
+                                                     Lifecycle lifecycle) {
+    // register the JAX-RS resources and providers indexed at build time, and only fall back to
+    // scanning the com.miguno package when running without the index
+    final Set<Class<?>> indexed = ResourceIndex.load();
+    final ResourceConfig rc = indexed != null
+        ? new ResourceConfig(indexed)
+        : new ResourceConfig().packages("com.miguno");
+
+    // /status/stream needs the SSE feature; register it rather than rely on service discovery, which a repackaged
+    // jar can break
+    rc.register(SseFeature.class);
+
+    // record request counts, in-flight requests and latencies for every resource
+    final RequestMetrics metrics = new RequestMetrics(config.workerMaxPoolSize());
+    rc.register(new RequestMetricsFilter(metrics));
+
+    // shed load per resource class once its adaptive concurrency limit is reached
+    final AdmissionConfig admission = AdmissionConfig.fromEnvironment(config);
+    final AdmissionControlFilter admissionControl = new AdmissionControlFilter(admission);
+    if (admission.enabled()) {
+      rc.register(admissionControl);
+    }
+
+    // negotiate gzip/deflate for larger text and JSON responses
+    final CompressionMetrics compression = new CompressionMetrics();
+    if (config.compression()) {
+      rc.register(new CompressionInterceptor(config.compressionMinSize(), compression));
+    }
+
+    // one broadcaster per application pushes state changes to all /status/stream and /status/changes watchers
+    final StatusBroadcaster broadcaster = new StatusBroadcaster(metrics);
+    // open event streams and long-polls would otherwise hold up draining until its deadline
+    lifecycle.onDrain(broadcaster::close);
+    rc.register(new AbstractContainerLifecycleListener() {
+      @Override
+      public void onShutdown(Container container) {
+        broadcaster.close();
+      }
+    });
+
+    rc.register(new AbstractBinder() {
+      @Override
+      protected void configure() {
+        bind(metrics).to(RequestMetrics.class);
+        bind(connections).to(ConnectionMetrics.class);
+        bind(compression).to(CompressionMetrics.class);
+        bind(config).to(ServerConfig.class);
+        bind(admissionControl).to(AdmissionControlFilter.class);
+        bind(broadcaster).to(StatusBroadcaster.class);
+        bind(lifecycle).to(Lifecycle.class);
+      }
+    });
+    return rc;
+  }
+
+  private static void configureTransport(TCPNIOTransport transport, ServerConfig config) {
+    transport.setSelectorRunnersCount(config.selectorRunners());
+
+    if (config.virtualThreads()) {
+      ExecutorService virtualThreads = newVirtualThreadPerTaskExecutor();
+      if (virtualThreads != null) {
+        transport.setWorkerThreadPool(virtualThreads);
+        return;
+      }
+      LOGGER.warning("Virtual threads requested but not supported by this JVM, using the worker pool instead");
+    }
+
+    // start from the transport's own pool config so Grizzly's naming and thread settings are kept
+    ThreadPoolConfig workerConfig = transport.getWorkerThreadPoolConfig() != null
+        ? transport.getWorkerThreadPoolConfig().copy()
+        : ThreadPoolConfig.defaultConfig();
+    transport.setWorkerThreadPoolConfig(workerConfig
+        .setCorePoolSize(config.workerCorePoolSize())
+        .setMaxPoolSize(config.workerMaxPoolSize())
+        .setQueueLimit(config.workerQueueLimit()));
+  }
+
+  private static void configureListener(NetworkListener listener, ServerConfig config) {
+    listener.getKeepAlive().setIdleTimeoutInSeconds(config.keepAliveIdleTimeoutSeconds());
+    listener.getKeepAlive().setMaxRequestsCount(config.keepAliveMaxRequests());
+
+    if (config.http2()) {
+      // plain-text listener, so clients either upgrade from HTTP/1.1 or connect with prior knowledge
+      listener.registerAddOn(new Http2AddOn(Http2Configuration.builder()
+          .maxConcurrentStreams(config.http2MaxConcurrentStreams())
+          .priorKnowledge(true)
+          .build()));
+      // either way Grizzly may hand the frames after the preface to its HTTP/1.1 parser, see Http2PrefaceFilter
+      listener.registerAddOn(new Http2PrefaceFilter());
+    }
+  }
+
+  /**
+   * Looks up {@code Executors.newVirtualThreadPerTaskExecutor()} reflectively so that the application still
+   * compiles and runs on Java 8. Returns null when the running JVM has no virtual threads.
+   */
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Starts the server, requests each endpoint once, reports the time from JVM start to the first successful
+   * {@code /status} and stops again. Run with {@code -XX:ArchiveClassesAtExit} to record the classes loaded at
+   * startup in an AppCDS archive.
+   */
+  private static void trainingRun() throws IOException {
+    HttpServer server = startServer(CONFIG.withAddress("127.0.0.1", CONFIG.port()));
+    try {
+      for (String path : new String[] {"status", "status/metrics", "assets/index.html"}) {
+        HttpURLConnection connection = (HttpURLConnection) new URL(
+            String.format("http://127.0.0.1:%d/%s", CONFIG.port(), path)).openConnection();
+        connection.setRequestProperty("Accept-Encoding", "gzip");
+        try (InputStream in = connection.getInputStream()) {
+          while (in.read() != -1) {
+            // drain
+          }
+        }
+        if ("status".equals(path)) {
+          System.out.println(String.format("First successful /status %d ms after JVM start",
+              ManagementFactory.getRuntimeMXBean().getUptime()));
+        }
+      }
+    } finally {
+      server.shutdownNow();
+    }
+  }
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    if (Boolean.getBoolean("app.training-run")) {
+      trainingRun();
+      return;
+    }
+
+    final Lifecycle lifecycle = Lifecycle.fromEnvironment();
+    startServer(CONFIG, lifecycle);
+    // SIGTERM stops accepting connections and drains in-flight requests before the JVM exits
+    lifecycle.installShutdownHook();
+    System.out.println(String.format("Jersey app started with %s", CONFIG));
     System.out.println(String.format("Jersey app started with WADL available at %sapplication.wadl", BASE_URI));
     System.out.println(String.format("Endpoint is available at %sstatus", BASE_URI));
+
+    // the listener is already open so liveness checks pass, but readiness waits for the warm-up
+    lifecycle.warmUp();
+    System.out.println(String.format("Readiness is available at %sready", BASE_URI));
+
+    // virtual threads are daemon threads, so don't rely on the worker pool to keep the JVM alive
+    Thread.currentThread().join();
   }
 }
-
@@ -0,0 +1,152 @@
+package com.miguno;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.GET;
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Serves the static front-end files packaged under {@code assets/} on the classpath.
+ *
+ * The files never change while the application runs, so each one is read once and compressed at most once
+ * per coding; later requests are answered from the cached bytes without touching the classpath or the
+ * compressor.
+ */
+@Singleton
+@Path("assets/{name}")
+public class Assets {
+
+  private final ConcurrentMap<String, Asset> cache = new ConcurrentHashMap<>();
+
+  private final ServerConfig config;
+  private final CompressionMetrics metrics;
+
+  @Inject
+  public Assets(ServerConfig config, CompressionMetrics metrics) {
+    this.config = config;
+    this.metrics = metrics;
+  }
+
+  @GET
+  public Response asset(@PathParam("name") String name, @Context Request request,
+                        @Context HttpHeaders headers) {
+    Asset asset = cache.get(name);
+    if (asset == null) {
+      asset = cache.computeIfAbsent(name, Asset::load);
+    }
+
+    String coding = config.compression() && asset.identity.length >= config.compressionMinSize()
+        ? Compression.negotiate(headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING))
+        : null;
+    // each coding is a different representation with its own strong validator, so a cache never answers a
+    // conditional request with bytes in a coding the client didn't negotiate
+    EntityTag etag = asset.etag(coding);
+    Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+    if (notModified != null) {
+      return notModified.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+    }
+
+    CacheControl cacheControl = new CacheControl();
+    cacheControl.setMaxAge(3600);
+    return Response.ok(coding == null ? asset.identity : asset.encoded(coding, metrics), asset.mediaType)
+        .header(HttpHeaders.CONTENT_ENCODING, coding)
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+        .tag(etag)
+        .cacheControl(cacheControl)
+        .build();
+  }
+
+  private static final class Asset {
+    private final byte[] identity;
+    private final String mediaType;
+    private final EntityTag etag;
+    private final EntityTag gzipEtag;
+    private final EntityTag deflateEtag;
+    private volatile byte[] gzip;
+    private volatile byte[] deflate;
+
+    private Asset(byte[] identity, String mediaType) {
+      this.identity = identity;
+      this.mediaType = mediaType;
+      this.etag = new EntityTag(Integer.toHexString(Arrays.hashCode(identity)) + "-" + identity.length);
+      this.gzipEtag = new EntityTag(etag.getValue() + "-" + Compression.GZIP);
+      this.deflateEtag = new EntityTag(etag.getValue() + "-" + Compression.DEFLATE);
+    }
+
+    EntityTag etag(String coding) {
+      if (coding == null) {
+        return etag;
+      }
+      return Compression.GZIP.equals(coding) ? gzipEtag : deflateEtag;
+    }
+
+    static Asset load(String name) {
+      if (name.contains("..") || name.contains("/")) {
+        throw new NotFoundException();
+      }
+      try (InputStream in = Assets.class.getResourceAsStream("/assets/" + name)) {
+        if (in == null) {
+          throw new NotFoundException();
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int n; (n = in.read(buffer)) != -1; ) {
+          bytes.write(buffer, 0, n);
+        }
+        return new Asset(bytes.toByteArray(), mediaType(name));
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to read asset " + name, e);
+      }
+    }
+
+    /**
+     * Returns the asset compressed with the given coding, compressing it on first use. Two racing requests may
+     * both compress; the result is identical, so the race is harmless.
+     */
+    byte[] encoded(String coding, CompressionMetrics metrics) {
+      byte[] cached = Compression.GZIP.equals(coding) ? gzip : deflate;
+      if (cached != null) {
+        metrics.recordCacheHit();
+        return cached;
+      }
+      metrics.recordCacheMiss();
+      byte[] compressed = Compression.compress(identity, identity.length, coding, metrics);
+      if (Compression.GZIP.equals(coding)) {
+        gzip = compressed;
+      } else {
+        deflate = compressed;
+      }
+      return compressed;
+    }
+
+    private static String mediaType(String name) {
+      String lower = name.toLowerCase(Locale.ROOT);
+      if (lower.endsWith(".html")) {
+        return "text/html;charset=UTF-8";
+      } else if (lower.endsWith(".css")) {
+        return "text/css;charset=UTF-8";
+      } else if (lower.endsWith(".js")) {
+        return "application/javascript;charset=UTF-8";
+      } else if (lower.endsWith(".json")) {
+        return "application/json";
+      }
+      return "application/octet-stream";
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package com.miguno;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content-coding negotiation and compression shared by {@link CompressionInterceptor} and {@link Assets}.
+ */
+public final class Compression {
+
+  public static final String GZIP = "gzip";
+  public static final String DEFLATE = "deflate";
+
+  private Compression() {
+  }
+
+  /**
+   * Picks the coding to use for a request's {@code Accept-Encoding} header: gzip if acceptable, else deflate,
+   * else null for the identity coding. Codings with {@code q=0} are treated as refused; {@code *} accepts gzip
+   * and deflate unless the header lists them itself (RFC 7231, section 5.3.4).
+   */
+  public static String negotiate(String acceptEncoding) {
+    if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+      return null;
+    }
+    // null while the coding isn't listed, else whether it is accepted
+    Boolean gzip = null;
+    Boolean deflate = null;
+    boolean any = false;
+    for (String part : acceptEncoding.split(",")) {
+      String[] params = part.split(";");
+      String coding = params[0].trim().toLowerCase(Locale.ROOT);
+      boolean accepted = !isRefused(params);
+      if (GZIP.equals(coding) || "x-gzip".equals(coding)) {
+        gzip = accepted || Boolean.TRUE.equals(gzip);
+      } else if (DEFLATE.equals(coding)) {
+        deflate = accepted || Boolean.TRUE.equals(deflate);
+      } else if ("*".equals(coding)) {
+        any = accepted;
+      }
+    }
+    if (gzip != null ? gzip : any) {
+      return GZIP;
+    }
+    return (deflate != null ? deflate : any) ? DEFLATE : null;
+  }
+
+  private static boolean isRefused(String[] params) {
+    for (int i = 1; i < params.length; i++) {
+      String param = params[i].trim();
+      if (param.startsWith("q=")) {
+        try {
+          return Double.parseDouble(param.substring(2)) <= 0;
+        } catch (NumberFormatException e) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Compresses {@code length} bytes of {@code data} with the given coding and records the cost in
+   * {@code metrics}.
+   */
+  public static byte[] compress(byte[] data, int length, String coding, CompressionMetrics metrics) {
+    long start = System.nanoTime();
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, length / 4));
+    try (OutputStream out = GZIP.equals(coding)
+        ? new GZIPOutputStream(compressed, 8192)
+        : new DeflaterOutputStream(compressed, new Deflater(Deflater.DEFAULT_COMPRESSION), 8192, false)) {
+      out.write(data, 0, length);
+    } catch (IOException e) {
+      // ByteArrayOutputStream does not throw
+      throw new UncheckedIOException(e);
+    }
+    byte[] result = compressed.toByteArray();
+    metrics.recordCompression(length, result.length, System.nanoTime() - start);
+    return result;
+  }
+}
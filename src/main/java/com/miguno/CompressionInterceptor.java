@@ -0,0 +1,99 @@
+package com.miguno;
+
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Compresses text and JSON response entities with gzip or deflate when the client accepts it and the entity is
+ * at least {@link ServerConfig#compressionMinSize()} bytes. Smaller entities are sent as-is, since the framing
+ * overhead and CPU cost outweigh the savings.
+ *
+ * The entity is buffered so its size is known before choosing; responses whose resource already negotiated
+ * the coding (such as the pre-compressed {@link Assets}) are left alone.
+ */
+@Priority(Priorities.ENTITY_CODER)
+public class CompressionInterceptor implements WriterInterceptor {
+
+  private final int minSize;
+  private final CompressionMetrics metrics;
+
+  @Context
+  private HttpHeaders requestHeaders;
+
+  public CompressionInterceptor(int minSize, CompressionMetrics metrics) {
+    this.minSize = minSize;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+    MultivaluedMap<String, Object> headers = context.getHeaders();
+    if (isNegotiatedByResource(headers) || !isCompressible(context.getMediaType())) {
+      context.proceed();
+      return;
+    }
+    String coding = Compression.negotiate(requestHeaders.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+
+    OutputStream original = context.getOutputStream();
+    BufferedEntity buffer = new BufferedEntity();
+    context.setOutputStream(buffer);
+    context.proceed();
+    context.setOutputStream(original);
+
+    headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (coding == null || buffer.size() < minSize) {
+      metrics.recordSkipped();
+      buffer.writeTo(original);
+      return;
+    }
+    byte[] compressed = Compression.compress(buffer.bytes(), buffer.size(), coding, metrics);
+    headers.putSingle(HttpHeaders.CONTENT_ENCODING, coding);
+    headers.remove(HttpHeaders.CONTENT_LENGTH);
+    original.write(compressed);
+  }
+
+  private static boolean isNegotiatedByResource(MultivaluedMap<String, Object> headers) {
+    if (headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+      return true;
+    }
+    List<Object> vary = headers.get(HttpHeaders.VARY);
+    return vary != null && vary.contains(HttpHeaders.ACCEPT_ENCODING);
+  }
+
+  private static boolean isCompressible(MediaType type) {
+    if (type == null) {
+      return false;
+    }
+    if ("text".equals(type.getType())) {
+      // event streams must be flushed event by event, never buffered
+      return !"event-stream".equals(type.getSubtype());
+    }
+    String subtype = type.getSubtype();
+    return "application".equals(type.getType())
+        && ("json".equals(subtype) || subtype.endsWith("+json") || "javascript".equals(subtype)
+        || "xml".equals(subtype) || subtype.endsWith("+xml"));
+  }
+
+  /**
+   * Exposes the internal buffer so it can be compressed without another copy.
+   */
+  private static class BufferedEntity extends ByteArrayOutputStream {
+    BufferedEntity() {
+      super(1024);
+    }
+
+    byte[] bytes() {
+      return buf;
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package com.miguno;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CPU time spent compressing versus bytes saved, plus hit counts of the pre-compressed asset cache.
+ */
+public class CompressionMetrics {
+
+  private final LongAdder compressions = new LongAdder();
+  private final LongAdder bytesIn = new LongAdder();
+  private final LongAdder bytesOut = new LongAdder();
+  private final LongAdder compressionNanos = new LongAdder();
+  private final LongAdder skipped = new LongAdder();
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder cacheMisses = new LongAdder();
+
+  void recordCompression(long uncompressed, long compressed, long nanos) {
+    compressions.increment();
+    bytesIn.add(uncompressed);
+    bytesOut.add(compressed);
+    compressionNanos.add(nanos);
+  }
+
+  /**
+   * A response that was sent uncompressed because it was below the minimum size or the client refused it.
+   */
+  void recordSkipped() {
+    skipped.increment();
+  }
+
+  void recordCacheHit() {
+    cacheHits.increment();
+  }
+
+  void recordCacheMiss() {
+    cacheMisses.increment();
+  }
+
+  public void appendJson(StringBuilder json) {
+    long in = bytesIn.sum();
+    long out = bytesOut.sum();
+    json.append("{\"compressions\": ").append(compressions.sum())
+        .append(", \"skipped\": ").append(skipped.sum())
+        .append(", \"bytesIn\": ").append(in)
+        .append(", \"bytesOut\": ").append(out)
+        .append(", \"ratio\": ").append(String.format("%.3f", in == 0 ? 1.0 : out / (double) in))
+        .append(", \"cpuMillis\": ").append(TimeUnit.NANOSECONDS.toMillis(compressionNanos.sum()))
+        .append(", \"cacheHits\": ").append(cacheHits.sum())
+        .append(", \"cacheMisses\": ").append(cacheMisses.sum())
+        .append('}');
+  }
+}
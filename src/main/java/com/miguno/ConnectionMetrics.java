@@ -0,0 +1,96 @@
+package com.miguno;
+
+import org.glassfish.grizzly.Connection;
+import org.glassfish.grizzly.ConnectionProbe;
+import org.glassfish.grizzly.Grizzly;
+import org.glassfish.grizzly.attributes.Attribute;
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.glassfish.grizzly.http.server.HttpServerFilter;
+import org.glassfish.grizzly.http.server.HttpServerProbe;
+import org.glassfish.grizzly.http.server.NetworkListener;
+import org.glassfish.grizzly.http.server.Request;
+import org.glassfish.grizzly.nio.transport.TCPNIOServerConnection;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection-level counters fed by Grizzly monitoring probes: open and accepted connections and requests per
+ * connection. Used to check whether keep-alive and HTTP/2 actually cut connection churn.
+ */
+public class ConnectionMetrics {
+
+  private static final Attribute<AtomicInteger> REQUESTS_ON_CONNECTION =
+      Grizzly.DEFAULT_ATTRIBUTE_BUILDER.createAttribute(ConnectionMetrics.class.getName() + ".requests");
+
+  private final LongAdder open = new LongAdder();
+  private final LongAdder accepted = new LongAdder();
+  private final LongAdder requests = new LongAdder();
+  private final LongAccumulator maxRequestsPerConnection = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Registers the probes on the server and all of its listeners. Must be called before the server is started.
+   */
+  public void attach(HttpServer server) {
+    server.getServerConfiguration().getMonitoringConfig().getWebServerConfig().addProbes(new RequestProbe());
+    for (NetworkListener listener : server.getListeners()) {
+      listener.getTransport().getConnectionMonitoringConfig().addProbes(new OpenConnectionProbe());
+    }
+  }
+
+  public long open() {
+    return open.sum();
+  }
+
+  public long accepted() {
+    return accepted.sum();
+  }
+
+  public long requests() {
+    return requests.sum();
+  }
+
+  public double requestsPerConnection() {
+    long connections = accepted();
+    return connections == 0 ? 0 : requests() / (double) connections;
+  }
+
+  public void appendJson(StringBuilder json) {
+    json.append("{\"open\": ").append(open())
+        .append(", \"accepted\": ").append(accepted())
+        .append(", \"requests\": ").append(requests())
+        .append(", \"requestsPerConnection\": ").append(String.format("%.2f", requestsPerConnection()))
+        .append(", \"maxRequestsPerConnection\": ").append(maxRequestsPerConnection.get())
+        .append('}');
+  }
+
+  private class OpenConnectionProbe extends ConnectionProbe.Adapter {
+    @Override
+    public void onAcceptEvent(Connection serverConnection, Connection clientConnection) {
+      open.increment();
+      accepted.increment();
+    }
+
+    @Override
+    public void onCloseEvent(Connection connection) {
+      // the listening socket reports its own close on shutdown
+      if (!(connection instanceof TCPNIOServerConnection)) {
+        open.decrement();
+      }
+    }
+  }
+
+  private class RequestProbe extends HttpServerProbe.Adapter {
+    @Override
+    public void onRequestReceiveEvent(HttpServerFilter filter, Connection connection, Request request) {
+      requests.increment();
+      AtomicInteger served = REQUESTS_ON_CONNECTION.get(connection);
+      if (served == null) {
+        served = new AtomicInteger();
+        REQUESTS_ON_CONNECTION.set(connection, served);
+      }
+      maxRequestsPerConnection.accumulate(served.incrementAndGet());
+    }
+  }
+}
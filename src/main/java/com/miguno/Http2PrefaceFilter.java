@@ -0,0 +1,58 @@
+package com.miguno;
+
+import org.glassfish.grizzly.Buffer;
+import org.glassfish.grizzly.filterchain.BaseFilter;
+import org.glassfish.grizzly.filterchain.FilterChainBuilder;
+import org.glassfish.grizzly.filterchain.FilterChainContext;
+import org.glassfish.grizzly.filterchain.NextAction;
+import org.glassfish.grizzly.filterchain.TransportFilter;
+import org.glassfish.grizzly.http.server.AddOn;
+import org.glassfish.grizzly.http.server.NetworkListener;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Keeps the HTTP/2 connection preface together with the bytes that follow it.
+ *
+ * Grizzly parses the preface as an HTTP/1.1 {@code PRI} request and only then switches the connection to HTTP/2,
+ * but it already lets the next read run while it switches. When a read ends exactly with the preface, the client's
+ * SETTINGS frame arriving in the next read can still reach the HTTP/1.1 parser, which answers it with
+ * {@code 400 Bad Request} and closes the connection. Such a read is therefore held back until more bytes arrive;
+ * every client sends its SETTINGS frame right after the preface without waiting for the server.
+ */
+public class Http2PrefaceFilter extends BaseFilter implements AddOn {
+
+  private static final byte[] PREFACE = "PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+  /**
+   * Installs the filter right after the transport, where reads are still raw bytes.
+   */
+  @Override
+  public void setup(NetworkListener networkListener, FilterChainBuilder builder) {
+    builder.add(builder.indexOfType(TransportFilter.class) + 1, this);
+  }
+
+  @Override
+  public NextAction handleRead(FilterChainContext ctx) {
+    Buffer buffer = ctx.getMessage();
+    if (endsWithPreface(buffer)) {
+      // Grizzly prepends the held bytes to the next read and runs this filter again
+      return ctx.getStopAction(buffer);
+    }
+    return ctx.getInvokeAction();
+  }
+
+  private static boolean endsWithPreface(Buffer buffer) {
+    int start = buffer.limit() - PREFACE.length;
+    if (start < buffer.position()) {
+      return false;
+    }
+    // compare from the end, where ordinary HTTP/1.1 requests differ after a few bytes at most
+    for (int i = PREFACE.length - 1; i >= 0; i--) {
+      if (buffer.get(start + i) != PREFACE[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
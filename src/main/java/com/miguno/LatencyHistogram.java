@@ -0,0 +1,77 @@
+package com.miguno;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of nanosecond latencies.
+ *
+ * Each power of two is split into 8 linear sub-buckets, so a reported percentile is within 12.5% of the
+ * recorded value. Buckets are {@link LongAdder}s, which stripe updates across cells under contention, so
+ * {@link #record(long)} is a bit scan plus one uncontended add.
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final LongAdder[] buckets = new LongAdder[BUCKETS];
+  private final LongAdder count = new LongAdder();
+
+  public LatencyHistogram() {
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  public void record(long nanos) {
+    buckets[bucketIndex(Math.max(0, nanos))].increment();
+    count.increment();
+  }
+
+  public long count() {
+    return count.sum();
+  }
+
+  /**
+   * Returns the upper bound, in nanoseconds, of the bucket holding the given quantile (0.0 - 1.0),
+   * or 0 if nothing has been recorded.
+   */
+  public long percentile(double quantile) {
+    long[] snapshot = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = buckets[i].sum();
+      total += snapshot[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(quantile * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return bucketUpperBound(i);
+      }
+    }
+    return bucketUpperBound(BUCKETS - 1);
+  }
+
+  static int bucketIndex(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+    return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+  }
+
+  static long bucketUpperBound(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = index / SUB_BUCKETS - 1;
+    long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+    return lowerBound + (1L << shift) - 1;
+  }
+}
@@ -0,0 +1,163 @@
+package com.miguno;
+
+import org.glassfish.grizzly.http.server.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.miguno.ServerConfig.intSetting;
+import static com.miguno.ServerConfig.setting;
+
+/**
+ * Readiness and shutdown of a running server.
+ *
+ * <ul>
+ *   <li>{@link #warmUp()} replays synthetic requests through the hot resources so the JIT has compiled them
+ *   before {@link Readiness} reports the instance as ready for traffic.</li>
+ *   <li>{@link #shutdown()}, run from a shutdown hook on SIGTERM, reports not-ready, stops accepting connections
+ *   and lets in-flight requests finish within the drain timeout before forcing the server down.</li>
+ * </ul>
+ *
+ * Configured with {@code server.warmup.*} and {@code server.shutdown.*} system properties or the matching
+ * environment variables.
+ */
+public class Lifecycle {
+
+  private static final Logger LOGGER = Logger.getLogger(Lifecycle.class.getName());
+
+  private final int warmUpRequests;
+  private final String[] warmUpPaths;
+  private final int shutdownDelaySeconds;
+  private final int drainTimeoutSeconds;
+  private final List<Runnable> drainListeners = new CopyOnWriteArrayList<>();
+  private volatile HttpServer server;
+  private volatile int port;
+  private volatile boolean ready;
+
+  Lifecycle(int warmUpRequests, String[] warmUpPaths, int shutdownDelaySeconds, int drainTimeoutSeconds) {
+    this.warmUpRequests = warmUpRequests;
+    this.warmUpPaths = warmUpPaths;
+    this.shutdownDelaySeconds = shutdownDelaySeconds;
+    this.drainTimeoutSeconds = drainTimeoutSeconds;
+  }
+
+  public static Lifecycle fromEnvironment() {
+    return new Lifecycle(
+        // per path; 0 makes the server ready as soon as warmUp() is called
+        intSetting("server.warmup.requests", 1000),
+        setting("server.warmup.paths", "status,status/metrics").split("\\s*,\\s*"),
+        // time between turning not-ready and closing the listener, for load balancers to notice
+        intSetting("server.shutdown.delay", 0),
+        intSetting("server.shutdown.drain-timeout", 30));
+  }
+
+  void attach(HttpServer server, int port) {
+    this.server = server;
+    this.port = port;
+  }
+
+  /**
+   * Registers an action to run when draining starts, e.g. to end long-lived streams that would otherwise keep
+   * the drain waiting until its deadline.
+   */
+  public void onDrain(Runnable listener) {
+    drainListeners.add(listener);
+  }
+
+  public boolean ready() {
+    return ready;
+  }
+
+  /**
+   * Sends the configured number of requests to each warm-up path from a few concurrent clients, then marks the
+   * server as ready. Failed warm-up requests are logged and do not prevent readiness.
+   */
+  public void warmUp() {
+    long start = System.nanoTime();
+    int clients = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    ExecutorService executor = Executors.newFixedThreadPool(clients);
+    try {
+      for (String path : warmUpPaths) {
+        URL url = new URL(String.format("http://127.0.0.1:%d/%s", port, path));
+        Future<?>[] batches = new Future<?>[clients];
+        for (int i = 0; i < clients; i++) {
+          int share = warmUpRequests / clients + (i < warmUpRequests % clients ? 1 : 0);
+          batches[i] = executor.submit(() -> replay(url, share));
+        }
+        for (Future<?> batch : batches) {
+          batch.get();
+        }
+      }
+    } catch (IOException | ExecutionException e) {
+      LOGGER.log(Level.WARNING, "Warm-up failed, marking server ready anyway", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    } finally {
+      executor.shutdownNow();
+    }
+    ready = true;
+    LOGGER.info(String.format("Warm-up of %d requests per path finished in %d ms, server is ready",
+        warmUpRequests, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+  }
+
+  private static Void replay(URL url, int requests) throws IOException {
+    byte[] buffer = new byte[1024];
+    for (int i = 0; i < requests; i++) {
+      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+      try (InputStream in = connection.getResponseCode() < 400
+          ? connection.getInputStream() : connection.getErrorStream()) {
+        while (in != null && in.read(buffer) != -1) {
+          // drain so the connection is reused
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Installs {@link #shutdown()} as a JVM shutdown hook, which runs on SIGTERM and SIGINT.
+   */
+  public void installShutdownHook() {
+    Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "lifecycle-shutdown"));
+  }
+
+  /**
+   * Reports not-ready, stops accepting new connections and waits up to the drain timeout for in-flight requests
+   * to complete, then stops the server.
+   */
+  public void shutdown() {
+    HttpServer target = server;
+    if (target == null) {
+      return;
+    }
+    ready = false;
+    try {
+      if (shutdownDelaySeconds > 0) {
+        TimeUnit.SECONDS.sleep(shutdownDelaySeconds);
+      }
+      drainListeners.forEach(Runnable::run);
+      target.shutdown(drainTimeoutSeconds, TimeUnit.SECONDS).get(drainTimeoutSeconds + 1, TimeUnit.SECONDS);
+      // java.util.logging resets its handlers in its own shutdown hook, so log to stdout here
+      System.out.println("Drained in-flight requests, server stopped");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      target.shutdownNow();
+    } catch (ExecutionException | TimeoutException e) {
+      System.out.println(String.format("In-flight requests did not drain within %ds, stopping now", drainTimeoutSeconds));
+      target.shutdownNow();
+    }
+  }
+}
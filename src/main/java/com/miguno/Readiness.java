@@ -0,0 +1,33 @@
+package com.miguno;
+
+import javax.inject.Inject;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+// orchestrators probe readiness during overload and shutdown, exactly when admission control rejects
+@AdmissionExempt
+@Path("ready")
+public class Readiness {
+
+  private final Lifecycle lifecycle;
+
+  @Inject
+  public Readiness(Lifecycle lifecycle) {
+    this.lifecycle = lifecycle;
+  }
+
+  /**
+   * Answers 200 once warm-up has finished and 503 before that and while the server drains for shutdown.
+   */
+  @GET
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response ready() {
+    boolean ready = lifecycle.ready();
+    return Response.status(ready ? Response.Status.OK : Response.Status.SERVICE_UNAVAILABLE)
+        .entity("{\"ready\": " + ready + "}\n")
+        .build();
+  }
+}
@@ -0,0 +1,141 @@
+package com.miguno;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request counts, in-flight requests and latency histograms per resource method.
+ *
+ * All counters are {@link LongAdder}s so concurrent requests never contend on a single cache line.
+ */
+public class RequestMetrics {
+
+  public enum State {
+    IDLE, BUSY, SATURATED;
+
+    public String label() {
+      return name().toLowerCase();
+    }
+  }
+
+  private static final Object UNKNOWN_RESOURCE = new Object();
+
+  private final int saturationThreshold;
+  private final LongAdder inFlight = new LongAdder();
+  private final ConcurrentMap<Object, ResourceStats> resources = new ConcurrentHashMap<>();
+
+  /**
+   * @param saturationThreshold number of concurrent requests at which the server is reported as saturated,
+   *                            normally the worker pool's maximum size
+   */
+  public RequestMetrics(int saturationThreshold) {
+    this.saturationThreshold = saturationThreshold;
+  }
+
+  public void requestStarted() {
+    inFlight.increment();
+  }
+
+  /**
+   * @param resourceMethod the matched resource method, or null if it is not known
+   */
+  public void requestCompleted(Method resourceMethod, long latencyNanos, boolean error) {
+    inFlight.decrement();
+    Object key = resourceMethod != null ? resourceMethod : UNKNOWN_RESOURCE;
+    ResourceStats stats = resources.get(key);
+    if (stats == null) {
+      stats = resources.computeIfAbsent(key, k -> new ResourceStats(resourceName(resourceMethod)));
+    }
+    stats.record(latencyNanos, error);
+  }
+
+  public long inFlight() {
+    return inFlight.sum();
+  }
+
+  /**
+   * Derives the server state from the number of requests currently being processed.
+   *
+   * @param exclude requests to leave out of the count, e.g. 1 for the status request asking the question
+   */
+  public State state(int exclude) {
+    long busy = inFlight() - exclude;
+    if (busy <= 0) {
+      return State.IDLE;
+    }
+    return busy >= saturationThreshold ? State.SATURATED : State.BUSY;
+  }
+
+  public Iterable<ResourceStats> resources() {
+    return resources.values();
+  }
+
+  /**
+   * Appends the per-resource counters and latency percentiles as a JSON object.
+   */
+  public void appendJson(StringBuilder json) {
+    json.append("{\"inFlight\": ").append(inFlight()).append(", \"resources\": {");
+    String separator = "";
+    for (ResourceStats stats : resources.values()) {
+      json.append(separator).append('"').append(stats.name()).append("\": ");
+      stats.appendJson(json);
+      separator = ", ";
+    }
+    json.append("}}");
+  }
+
+  private static String resourceName(Method method) {
+    return method != null ? method.getDeclaringClass().getSimpleName() + "#" + method.getName() : "unknown";
+  }
+
+  public static class ResourceStats {
+    private final String name;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    ResourceStats(String name) {
+      this.name = name;
+    }
+
+    void record(long latencyNanos, boolean error) {
+      requests.increment();
+      if (error) {
+        errors.increment();
+      }
+      latency.record(latencyNanos);
+    }
+
+    public String name() {
+      return name;
+    }
+
+    public long requests() {
+      return requests.sum();
+    }
+
+    public long errors() {
+      return errors.sum();
+    }
+
+    public LatencyHistogram latency() {
+      return latency;
+    }
+
+    void appendJson(StringBuilder json) {
+      json.append("{\"requests\": ").append(requests())
+          .append(", \"errors\": ").append(errors())
+          .append(", \"p50Millis\": ").append(millis(latency.percentile(0.50)))
+          .append(", \"p99Millis\": ").append(millis(latency.percentile(0.99)))
+          .append(", \"p999Millis\": ").append(millis(latency.percentile(0.999)))
+          .append('}');
+    }
+
+    private static double millis(long nanos) {
+      return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package com.miguno;
+
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import java.lang.reflect.Method;
+
+/**
+ * Records every matched request in {@link RequestMetrics}.
+ *
+ * Runs before all other filters on the way in and after them on the way out, so the recorded latency
+ * covers the whole Jersey pipeline for the request. Requests whose response filters never run, e.g. because
+ * the resource threw an unmapped exception, are completed as errors when Jersey reports them finished, so
+ * they never stay in flight.
+ */
+@Priority(Priorities.AUTHENTICATION - 1000)
+public class RequestMetricsFilter implements ContainerRequestFilter, ContainerResponseFilter,
+    ApplicationEventListener {
+
+  private static final String COMPLETION_PROPERTY = RequestMetricsFilter.class.getName() + ".completion";
+
+  private final RequestMetrics metrics;
+
+  @Context
+  private ResourceInfo resourceInfo;
+
+  public RequestMetricsFilter(RequestMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  @Override
+  public void filter(ContainerRequestContext requestContext) {
+    Completion completion = (Completion) requestContext.getProperty(COMPLETION_PROPERTY);
+    if (completion != null) {
+      completion.start(resourceInfo.getResourceMethod());
+    }
+  }
+
+  @Override
+  public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+    Completion completion = (Completion) requestContext.getProperty(COMPLETION_PROPERTY);
+    if (completion != null) {
+      completion.complete(responseContext.getStatus() >= 500);
+    }
+  }
+
+  @Override
+  public void onEvent(ApplicationEvent event) {
+  }
+
+  @Override
+  public RequestEventListener onRequest(RequestEvent requestEvent) {
+    return new Completion();
+  }
+
+  /**
+   * Tracks one request from the request filter to whichever comes first of the response filter and Jersey
+   * finishing the request. The request's properties can't be used for this, since the container may have
+   * recycled the request by the time it is finished.
+   */
+  private final class Completion implements RequestEventListener {
+    private Method resourceMethod;
+    private long start;
+    private boolean inFlight;
+
+    void start(Method resourceMethod) {
+      this.resourceMethod = resourceMethod;
+      this.start = System.nanoTime();
+      this.inFlight = true;
+      metrics.requestStarted();
+    }
+
+    void complete(boolean error) {
+      if (inFlight) {
+        inFlight = false;
+        metrics.requestCompleted(resourceMethod, System.nanoTime() - start, error);
+      }
+    }
+
+    @Override
+    public void onEvent(RequestEvent event) {
+      if (event.getType() == RequestEvent.Type.REQUEST_MATCHED) {
+        event.getContainerRequest().setProperty(COMPLETION_PROPERTY, this);
+      } else if (event.getType() == RequestEvent.Type.FINISHED) {
+        ContainerResponse response = event.getContainerResponse();
+        complete(response == null || response.getStatus() >= 500);
+      }
+    }
+  }
+}
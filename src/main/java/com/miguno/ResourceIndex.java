@@ -0,0 +1,96 @@
+package com.miguno;
+
+import javax.ws.rs.ext.Provider;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Build-time index of the JAX-RS resources and providers in com.miguno.
+ *
+ * {@link #main(String[])} runs during the {@code process-classes} phase, finds the annotated classes in the
+ * compiled output and writes their names to {@link #LOCATION}. At startup {@link App} registers the listed
+ * classes directly instead of scanning the classpath.
+ */
+public final class ResourceIndex {
+
+  static final String LOCATION = "META-INF/com.miguno/resources.idx";
+
+  private static final String PACKAGE = "com.miguno";
+
+  private ResourceIndex() {
+  }
+
+  /**
+   * Returns the indexed classes, or null if the application was not built with an index (e.g. run from an IDE
+   * that skips the Maven lifecycle).
+   */
+  static Set<Class<?>> load() {
+    InputStream in = ResourceIndex.class.getClassLoader().getResourceAsStream(LOCATION);
+    if (in == null) {
+      return null;
+    }
+    Set<Class<?>> classes = new LinkedHashSet<>();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+      for (String line; (line = reader.readLine()) != null; ) {
+        if (!line.trim().isEmpty()) {
+          classes.add(Class.forName(line.trim()));
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read " + LOCATION, e);
+    } catch (ClassNotFoundException e) {
+      throw new IllegalStateException(LOCATION + " is out of date, rebuild the application", e);
+    }
+    return classes;
+  }
+
+  /**
+   * Writes the index for the classes compiled into the given output directory.
+   */
+  public static void main(String[] args) throws IOException, ClassNotFoundException {
+    if (args.length != 1) {
+      throw new IllegalArgumentException("Usage: ResourceIndex <classes directory>");
+    }
+    Path classesDir = Paths.get(args[0]);
+    Path packageDir = classesDir.resolve(PACKAGE.replace('.', '/'));
+
+    List<String> names;
+    try (Stream<Path> files = Files.list(packageDir)) {
+      names = files
+          .map(file -> file.getFileName().toString())
+          .filter(file -> file.endsWith(".class") && !file.contains("$"))
+          .map(file -> PACKAGE + "." + file.substring(0, file.length() - ".class".length()))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+
+    List<String> indexed = new ArrayList<>();
+    for (String name : names) {
+      Class<?> type = Class.forName(name, false, ResourceIndex.class.getClassLoader());
+      boolean concrete = !type.isInterface() && !Modifier.isAbstract(type.getModifiers());
+      boolean annotated = type.isAnnotationPresent(javax.ws.rs.Path.class) || type.isAnnotationPresent(Provider.class);
+      if (concrete && annotated) {
+        indexed.add(name);
+      }
+    }
+
+    Path index = classesDir.resolve(LOCATION);
+    Files.createDirectories(index.getParent());
+    Files.write(index, indexed, StandardCharsets.UTF_8);
+    System.out.println(String.format("Indexed %d resources and providers in %s", indexed.size(), index));
+  }
+}
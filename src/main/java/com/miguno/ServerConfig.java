@@ -0,0 +1,181 @@
+package com.miguno;
+
+import java.util.Locale;
+
+/**
+ * Tuning knobs for the Grizzly HTTP server.
+ *
+ * Every setting is read from a system property (e.g. {@code -Dserver.port=9000}) and falls back to the
+ * matching environment variable (e.g. {@code SERVER_PORT=9000}) and then to the built-in default.
+ */
+public class ServerConfig {
+
+  private static final int CPUS = Runtime.getRuntime().availableProcessors();
+
+  private final String host;
+  private final int port;
+  private final int selectorRunners;
+  private final int workerCorePoolSize;
+  private final int workerMaxPoolSize;
+  private final int workerQueueLimit;
+  private final boolean virtualThreads;
+  private final boolean http2;
+  private final int http2MaxConcurrentStreams;
+  private final int keepAliveIdleTimeoutSeconds;
+  private final int keepAliveMaxRequests;
+  private final boolean compression;
+  private final int compressionMinSize;
+
+  ServerConfig(String host, int port, int selectorRunners, int workerCorePoolSize, int workerMaxPoolSize,
+               int workerQueueLimit, boolean virtualThreads, boolean http2, int http2MaxConcurrentStreams,
+               int keepAliveIdleTimeoutSeconds, int keepAliveMaxRequests, boolean compression,
+               int compressionMinSize) {
+    if (workerCorePoolSize > workerMaxPoolSize) {
+      throw new IllegalArgumentException(String.format(
+          "server.worker.core (%d) must not exceed server.worker.max (%d)", workerCorePoolSize, workerMaxPoolSize));
+    }
+    this.host = host;
+    this.port = port;
+    this.selectorRunners = selectorRunners;
+    this.workerCorePoolSize = workerCorePoolSize;
+    this.workerMaxPoolSize = workerMaxPoolSize;
+    this.workerQueueLimit = workerQueueLimit;
+    this.virtualThreads = virtualThreads;
+    this.http2 = http2;
+    this.http2MaxConcurrentStreams = http2MaxConcurrentStreams;
+    this.keepAliveIdleTimeoutSeconds = keepAliveIdleTimeoutSeconds;
+    this.keepAliveMaxRequests = keepAliveMaxRequests;
+    this.compression = compression;
+    this.compressionMinSize = compressionMinSize;
+  }
+
+  /**
+   * Reads the configuration from system properties and environment variables.
+   */
+  public static ServerConfig fromEnvironment() {
+    int workerMax = intSetting("server.worker.max", Math.max(CPUS * 2, 8));
+    return new ServerConfig(
+        setting("server.host", "0.0.0.0"),
+        intSetting("server.port", 8123),
+        intSetting("server.selectors", CPUS),
+        intSetting("server.worker.core", Math.min(CPUS * 2, workerMax)),
+        workerMax,
+        // -1 keeps Grizzly's unbounded queue
+        intSetting("server.worker.queue", -1),
+        booleanSetting("server.virtual-threads", false),
+        // cleartext HTTP/2 (h2c), via upgrade or prior knowledge, next to HTTP/1.1 on the same port
+        booleanSetting("server.http2", false),
+        intSetting("server.http2.max-concurrent-streams", 100),
+        // -1 disables the idle timeout / the limit on requests per connection
+        intSetting("server.keepalive.idle-timeout", 30),
+        intSetting("server.keepalive.max-requests", 256),
+        // gzip/deflate for text and JSON responses of at least min-size bytes
+        booleanSetting("server.compression", true),
+        intSetting("server.compression.min-size", 1024));
+  }
+
+  /**
+   * Returns a copy of this configuration bound to another host and port.
+   */
+  ServerConfig withAddress(String host, int port) {
+    return new ServerConfig(host, port, selectorRunners, workerCorePoolSize, workerMaxPoolSize, workerQueueLimit,
+        virtualThreads, http2, http2MaxConcurrentStreams, keepAliveIdleTimeoutSeconds, keepAliveMaxRequests,
+        compression, compressionMinSize);
+  }
+
+  public String baseUri() {
+    return String.format("http://%s:%d/", host, port);
+  }
+
+  public String host() {
+    return host;
+  }
+
+  public int port() {
+    return port;
+  }
+
+  public int selectorRunners() {
+    return selectorRunners;
+  }
+
+  public int workerCorePoolSize() {
+    return workerCorePoolSize;
+  }
+
+  public int workerMaxPoolSize() {
+    return workerMaxPoolSize;
+  }
+
+  public int workerQueueLimit() {
+    return workerQueueLimit;
+  }
+
+  public boolean virtualThreads() {
+    return virtualThreads;
+  }
+
+  public boolean http2() {
+    return http2;
+  }
+
+  public int http2MaxConcurrentStreams() {
+    return http2MaxConcurrentStreams;
+  }
+
+  public int keepAliveIdleTimeoutSeconds() {
+    return keepAliveIdleTimeoutSeconds;
+  }
+
+  public int keepAliveMaxRequests() {
+    return keepAliveMaxRequests;
+  }
+
+  public boolean compression() {
+    return compression;
+  }
+
+  public int compressionMinSize() {
+    return compressionMinSize;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "ServerConfig{uri=%s, selectors=%d, worker.core=%d, worker.max=%d, worker.queue=%d, virtual-threads=%b, "
+            + "http2=%b, http2.max-concurrent-streams=%d, keepalive.idle-timeout=%ds, keepalive.max-requests=%d, "
+            + "compression=%b, compression.min-size=%d}",
+        baseUri(), selectorRunners, workerCorePoolSize, workerMaxPoolSize, workerQueueLimit, virtualThreads,
+        http2, http2MaxConcurrentStreams, keepAliveIdleTimeoutSeconds, keepAliveMaxRequests, compression,
+        compressionMinSize);
+  }
+
+  /**
+   * Looks up {@code name} as a system property, then as an environment variable
+   * ({@code server.worker.max} becomes {@code SERVER_WORKER_MAX}).
+   */
+  static String setting(String name, String defaultValue) {
+    String value = System.getProperty(name);
+    if (value == null) {
+      value = System.getenv(name.replace('.', '_').replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+    return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+  }
+
+  static int intSetting(String name, int defaultValue) {
+    String value = setting(name, null);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(String.format("%s must be an integer but was '%s'", name, value), e);
+    }
+  }
+
+  static boolean booleanSetting(String name, boolean defaultValue) {
+    String value = setting(name, null);
+    return value == null ? defaultValue : Boolean.parseBoolean(value);
+  }
+}
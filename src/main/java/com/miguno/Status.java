@@ -1,16 +1,98 @@
 package com.miguno;
 
+import javax.inject.Inject;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+import java.util.concurrent.TimeUnit;
 
+// health checks must keep working while other resources shed load
+@AdmissionExempt
 @Path("status")
 public class Status {
 
+  private final RequestMetrics metrics;
+  private final ConnectionMetrics connections;
+  private final CompressionMetrics compression;
+  private final AdmissionControlFilter admission;
+  private final StatusBroadcaster broadcaster;
+
+  @Inject
+  public Status(RequestMetrics metrics, ConnectionMetrics connections, CompressionMetrics compression,
+                AdmissionControlFilter admission, StatusBroadcaster broadcaster) {
+    this.metrics = metrics;
+    this.connections = connections;
+    this.compression = compression;
+    this.admission = admission;
+    this.broadcaster = broadcaster;
+  }
+
+  /**
+   * Reports idle, busy or saturated depending on how many other requests are currently being processed.
+   */
   @GET
   @Produces(MediaType.APPLICATION_JSON)
   public String statusInformation() {
-    return "{\"status\": \"idle\"}\n";
+    // leave out this very request and the parked long-polls
+    return "{\"status\": \"" + broadcaster.currentState(1).label() + "\"}\n";
+  }
+
+  /**
+   * Streams state changes as server-sent events named {@code status}, starting with the current state. The
+   * connection stays open without holding a worker thread.
+   */
+  @GET
+  @Path("stream")
+  @Produces(MediaType.SERVER_SENT_EVENTS)
+  public void stream(@Context SseEventSink sink, @Context Sse sse) {
+    broadcaster.subscribe(sink, sse);
+  }
+
+  /**
+   * Long-poll alternative to {@link #stream}: answers as soon as the state differs from {@code since} (right away
+   * if it already does or {@code since} is missing), or with the unchanged state after 30 seconds.
+   */
+  @GET
+  @Path("changes")
+  @Produces(MediaType.APPLICATION_JSON)
+  public void changes(@QueryParam("since") String since, @Suspended AsyncResponse response) {
+    response.setTimeout(30, TimeUnit.SECONDS);
+    response.setTimeoutHandler(broadcaster::timedOut);
+    broadcaster.await(response, parseState(since));
+  }
+
+  private static RequestMetrics.State parseState(String state) {
+    for (RequestMetrics.State candidate : RequestMetrics.State.values()) {
+      if (candidate.label().equals(state)) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Reports request counts and latency percentiles per resource, connection counters, compression savings and
+   * admission limits.
+   */
+  @GET
+  @Path("metrics")
+  @Produces(MediaType.APPLICATION_JSON)
+  public String metrics() {
+    StringBuilder json = new StringBuilder("{\"status\": \"").append(broadcaster.currentState(1).label()).append("\", \"requests\": ");
+    metrics.appendJson(json);
+    json.append(", \"connections\": ");
+    connections.appendJson(json);
+    json.append(", \"compression\": ");
+    compression.appendJson(json);
+    json.append(", \"admission\": ");
+    admission.appendJson(json);
+    return json.append("}\n").toString();
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,158 @@
+package com.miguno;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseBroadcaster;
+import javax.ws.rs.sse.SseEventSink;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes server state changes to every watcher from one place.
+ *
+ * A single daemon thread samples {@link RequestMetrics#state(int)} at a fixed interval. When the state changes it
+ * broadcasts one event to all server-sent-event subscribers and resumes all suspended long-poll requests, so
+ * watchers cost neither a worker thread nor a poll each.
+ */
+public class StatusBroadcaster implements AutoCloseable {
+
+  private static final long SAMPLE_INTERVAL_MILLIS = 250;
+
+  private final RequestMetrics metrics;
+  private final Queue<AsyncResponse> waiters = new ConcurrentLinkedQueue<>();
+  // suspended long-poll requests stay in flight until resumed and must not count as load
+  private final AtomicInteger waiting = new AtomicInteger();
+  private volatile RequestMetrics.State state = RequestMetrics.State.IDLE;
+  private Sse sse;
+  private SseBroadcaster broadcaster;
+  private ScheduledExecutorService sampler;
+
+  public StatusBroadcaster(RequestMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  public RequestMetrics.State state() {
+    return state;
+  }
+
+  /**
+   * The state right now rather than as last sampled, leaving out the suspended long-poll requests and
+   * {@code exclude} further requests.
+   */
+  public RequestMetrics.State currentState(int exclude) {
+    return metrics.state(exclude + waiting.get());
+  }
+
+  /**
+   * Adds an event stream subscriber and sends it the current state right away.
+   */
+  public void subscribe(SseEventSink sink, Sse sse) {
+    start(sse).register(sink);
+    sink.send(event(state));
+  }
+
+  /**
+   * Resumes {@code response} with the next state change, or immediately if the state already differs from
+   * {@code known}.
+   */
+  public void await(AsyncResponse response, RequestMetrics.State known) {
+    start(null);
+    if (state != known) {
+      response.resume(json(state));
+      return;
+    }
+    waiting.incrementAndGet();
+    waiters.add(response);
+    // the state may have changed between the check and the add
+    if (state != known && dequeue(response)) {
+      response.resume(json(state));
+    }
+  }
+
+  /**
+   * Answers a long-poll request whose timeout expired with the unchanged state.
+   */
+  public void timedOut(AsyncResponse response) {
+    if (dequeue(response)) {
+      response.resume(json(state));
+    }
+  }
+
+  private boolean dequeue(AsyncResponse response) {
+    if (waiters.remove(response)) {
+      waiting.decrementAndGet();
+      return true;
+    }
+    return false;
+  }
+
+  private synchronized SseBroadcaster start(Sse sse) {
+    if (sse != null && broadcaster == null) {
+      this.sse = sse;
+      this.broadcaster = sse.newBroadcaster();
+    }
+    if (sampler == null) {
+      // called from within a request, which is itself still in flight
+      state = currentState(1);
+      sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "status-broadcaster");
+        thread.setDaemon(true);
+        return thread;
+      });
+      sampler.scheduleWithFixedDelay(this::sample, SAMPLE_INTERVAL_MILLIS, SAMPLE_INTERVAL_MILLIS,
+          TimeUnit.MILLISECONDS);
+    }
+    return broadcaster;
+  }
+
+  private void sample() {
+    RequestMetrics.State current = currentState(0);
+    if (current == state) {
+      return;
+    }
+    state = current;
+    SseBroadcaster target;
+    synchronized (this) {
+      target = broadcaster;
+    }
+    if (target != null) {
+      target.broadcast(event(current));
+    }
+    for (AsyncResponse waiter; (waiter = waiters.poll()) != null; ) {
+      waiting.decrementAndGet();
+      waiter.resume(json(current));
+    }
+  }
+
+  private synchronized OutboundSseEvent event(RequestMetrics.State current) {
+    return sse.newEventBuilder()
+        .name("status")
+        .mediaType(MediaType.APPLICATION_JSON_TYPE)
+        .data(String.class, json(current))
+        .build();
+  }
+
+  static String json(RequestMetrics.State state) {
+    return "{\"status\": \"" + state.label() + "\"}\n";
+  }
+
+  @Override
+  public synchronized void close() {
+    if (sampler != null) {
+      sampler.shutdownNow();
+    }
+    if (broadcaster != null) {
+      broadcaster.close();
+    }
+    for (AsyncResponse waiter; (waiter = waiters.poll()) != null; ) {
+      waiting.decrementAndGet();
+      waiter.cancel();
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package com.miguno;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveLimitTest {
+
+  private static final long TARGET = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final AdmissionConfig config = new AdmissionConfig(true, 4, 2, 8, TARGET, 1);
+
+  @Test
+  public void shouldRejectBeyondLimit() {
+    AdaptiveLimit limit = new AdaptiveLimit(config);
+    for (int i = 0; i < 4; i++) {
+      assertTrue(limit.tryAcquire());
+    }
+    assertFalse(limit.tryAcquire());
+    assertEquals(1, limit.rejected());
+
+    limit.release(TARGET / 2);
+    assertTrue(limit.tryAcquire());
+  }
+
+  @Test
+  public void shouldBackOffOnSlowRequestsDownToMinimum() {
+    AdaptiveLimit limit = new AdaptiveLimit(config);
+    long now = 0;
+    for (int i = 0; i < 20; i++) {
+      // each request is admitted after the previous one cut the limit
+      now += TARGET * 3;
+      assertTrue(limit.tryAcquire());
+      limit.release(TARGET * 2, now);
+    }
+    assertEquals(2, limit.limit());
+  }
+
+  @Test
+  public void shouldBackOffOncePerWindow() {
+    AdaptiveLimit limit = new AdaptiveLimit(config);
+    for (int i = 0; i < 4; i++) {
+      assertTrue(limit.tryAcquire());
+    }
+    long now = TARGET * 10;
+    for (int i = 0; i < 4; i++) {
+      limit.release(TARGET * 2, now + i);
+    }
+    assertEquals(3, limit.limit());
+
+    assertTrue(limit.tryAcquire());
+    limit.release(TARGET * 2, now + TARGET * 3);
+    assertEquals(3, limit.limit());
+    assertTrue(limit.tryAcquire());
+    limit.release(TARGET * 2, now + TARGET * 6);
+    assertEquals(2, limit.limit());
+  }
+
+  @Test
+  public void shouldGrowWhileFullyUsedAndFastUpToMaximum() {
+    AdaptiveLimit limit = new AdaptiveLimit(config);
+    for (int round = 0; round < 100; round++) {
+      int acquired = 0;
+      while (limit.tryAcquire()) {
+        acquired++;
+      }
+      for (int i = 0; i < acquired; i++) {
+        limit.release(TARGET / 2);
+      }
+    }
+    assertEquals(8, limit.limit());
+  }
+
+  @Test
+  public void shouldNotGrowWhileMostlyIdle() {
+    AdaptiveLimit limit = new AdaptiveLimit(config);
+    for (int i = 0; i < 100; i++) {
+      assertTrue(limit.tryAcquire());
+      limit.release(TARGET / 2);
+    }
+    assertEquals(4, limit.limit());
+  }
+}
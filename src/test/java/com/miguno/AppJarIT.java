@@ -0,0 +1,91 @@
+package com.miguno;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.sse.InboundSseEvent;
+import javax.ws.rs.sse.SseEventSource;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Smoke test of the shaded jar as it is deployed, i.e. {@code java -jar app.jar}, which only sees the services
+ * and resources that survived repackaging. Runs in the integration-test phase, after {@code package}.
+ */
+public class AppJarIT {
+
+  private static final int PORT = 8124;
+
+  private Process app;
+  private WebTarget target;
+
+  @BeforeEach
+  public void setUp() throws IOException, InterruptedException {
+    File jar = new File(System.getProperty("app.jar", "target/app.jar"));
+    assertTrue(jar.isFile(), jar + " not found, run mvn verify");
+    app = new ProcessBuilder(
+        new File(System.getProperty("java.home"), "bin/java").getPath(),
+        "-Dserver.host=127.0.0.1", "-Dserver.port=" + PORT,
+        "-jar", jar.getPath())
+        .redirectErrorStream(true)
+        .redirectOutput(new File(jar.getParentFile(), "app-it.log"))
+        .start();
+    target = ClientBuilder.newClient().target("http://127.0.0.1:" + PORT + "/");
+    awaitStarted();
+  }
+
+  @AfterEach
+  public void tearDown() throws InterruptedException {
+    app.destroy();
+    app.waitFor(10, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Waits until the app reports ready, i.e. its warm-up requests are done and no longer count as load.
+   */
+  private void awaitStarted() throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+    while (true) {
+      try (Response response = target.path("ready").request().get()) {
+        if (response.getStatus() == Response.Status.OK.getStatusCode()) {
+          return;
+        }
+      } catch (ProcessingException e) {
+        // not listening yet
+      }
+      assertTrue(app.isAlive(), "app.jar exited, see target/app-it.log");
+      assertTrue(System.nanoTime() < deadline, "app.jar did not become ready within 30s");
+      TimeUnit.MILLISECONDS.sleep(100);
+    }
+  }
+
+  @Test
+  public void shouldServeStatus() {
+    assertEquals("{\"status\": \"idle\"}\n", target.path("status").request().get(String.class));
+  }
+
+  @Test
+  public void shouldStreamStatus() throws InterruptedException {
+    BlockingQueue<InboundSseEvent> events = new LinkedBlockingQueue<>();
+    try (SseEventSource source = SseEventSource.target(target.path("status/stream")).build()) {
+      source.register(events::add);
+      source.open();
+      InboundSseEvent event = events.poll(5, TimeUnit.SECONDS);
+      assertNotNull(event, "no event received");
+      assertEquals("status", event.getName());
+      assertEquals("{\"status\": \"idle\"}\n", event.readData());
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package com.miguno;
+
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompressionTest {
+
+  private HttpServer server;
+  private WebTarget target;
+
+  @BeforeEach
+  public void setUp() {
+    System.setProperty("server.compression.min-size", "64");
+    try {
+      server = App.startServer(ServerConfig.fromEnvironment());
+    } finally {
+      System.clearProperty("server.compression.min-size");
+    }
+    target = ClientBuilder.newClient().target(App.BASE_URI);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    server.shutdownNow();
+  }
+
+  @Test
+  public void shouldNegotiateCoding() {
+    assertEquals("gzip", Compression.negotiate("deflate, gzip;q=0.5"));
+    assertEquals("deflate", Compression.negotiate("gzip;q=0, deflate"));
+    assertEquals("gzip", Compression.negotiate("*"));
+    assertNull(Compression.negotiate("br"));
+    assertNull(Compression.negotiate(null));
+  }
+
+  @Test
+  public void shouldOnlyLetWildcardAcceptCodingsNotListed() {
+    assertEquals("deflate", Compression.negotiate("gzip;q=0, *"));
+    assertEquals("gzip", Compression.negotiate("deflate;q=0, *"));
+    assertNull(Compression.negotiate("gzip;q=0, deflate;q=0, *"));
+    assertNull(Compression.negotiate("*;q=0"));
+    assertEquals("deflate", Compression.negotiate("*;q=0, deflate"));
+  }
+
+  @Test
+  public void shouldServePrecompressedAssetFromCache() throws IOException {
+    byte[] original = Files.readAllBytes(Paths.get("index.html"));
+
+    for (int i = 0; i < 2; i++) {
+      Response response = target.path("assets/index.html").request().header("Accept-Encoding", "gzip").get();
+      assertEquals(200, response.getStatus());
+      assertEquals("gzip", response.getHeaderString("Content-Encoding"));
+      assertArrayEquals(original, gunzip(response.readEntity(byte[].class)));
+    }
+
+    Response identity = target.path("assets/index.html").request().get();
+    assertNull(identity.getHeaderString("Content-Encoding"));
+    assertArrayEquals(original, identity.readEntity(byte[].class));
+
+    String metrics = target.path("status/metrics").request().get(String.class);
+    assertTrue(metrics.contains("\"cacheHits\": 1, \"cacheMisses\": 1"), metrics);
+  }
+
+  @Test
+  public void shouldTagEachCodingOfAssetSeparately() {
+    Response gzip = target.path("assets/index.html").request().header("Accept-Encoding", "gzip").get();
+    Response identity = target.path("assets/index.html").request().get();
+    String gzipTag = gzip.getHeaderString("ETag");
+    String identityTag = identity.getHeaderString("ETag");
+    assertNotEquals(identityTag, gzipTag);
+    assertFalse(gzipTag.startsWith("W/"), gzipTag);
+
+    assertEquals(304, target.path("assets/index.html").request()
+        .header("Accept-Encoding", "gzip").header("If-None-Match", gzipTag).get().getStatus());
+    // the client's copy is gzip, but it no longer accepts gzip, so it must get the identity bytes
+    Response revalidated = target.path("assets/index.html").request().header("If-None-Match", gzipTag).get();
+    assertEquals(200, revalidated.getStatus());
+    assertNull(revalidated.getHeaderString("Content-Encoding"));
+    assertEquals(identityTag, revalidated.getHeaderString("ETag"));
+  }
+
+  @Test
+  public void shouldCompressJsonAboveMinimumSize() throws IOException {
+    Response small = target.path("status").request().header("Accept-Encoding", "gzip").get();
+    assertNull(small.getHeaderString("Content-Encoding"));
+    assertEquals("{\"status\": \"idle\"}\n", small.readEntity(String.class));
+
+    Response large = target.path("status/metrics").request().header("Accept-Encoding", "gzip").get();
+    assertEquals("gzip", large.getHeaderString("Content-Encoding"));
+    String json = new String(gunzip(large.readEntity(byte[].class)), "UTF-8");
+    assertTrue(json.startsWith("{\"status\": "), json);
+  }
+
+  private static byte[] gunzip(byte[] compressed) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      byte[] buffer = new byte[8192];
+      for (int n; (n = in.read(buffer)) != -1; ) {
+        out.write(buffer, 0, n);
+      }
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,188 @@
+package com.miguno;
+
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Talks plain-text HTTP/2 (h2c) to the server frame by frame, both by upgrading from HTTP/1.1 and with prior
+ * knowledge, since the JDK client offers neither on Java 8. The preface and the first SETTINGS frame are written
+ * separately on purpose, see {@link Http2PrefaceFilter}.
+ */
+public class Http2Test {
+
+  private static final byte[] PREFACE = "PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+  private static final int DATA = 0;
+  private static final int HEADERS = 1;
+  private static final int SETTINGS = 4;
+  private static final int GOAWAY = 7;
+  private static final int END_STREAM = 1;
+  private static final int ACK = 1;
+  private static final int END_HEADERS = 4;
+
+  private HttpServer server;
+
+  @BeforeEach
+  public void setUp() {
+    System.setProperty("server.http2", "true");
+    try {
+      server = App.startServer(ServerConfig.fromEnvironment());
+    } finally {
+      System.clearProperty("server.http2");
+    }
+  }
+
+  @AfterEach
+  public void tearDown() {
+    server.shutdownNow();
+  }
+
+  @Test
+  public void shouldAnswerEveryStreamOfUpgradedConnection() throws IOException {
+    try (Socket socket = new Socket("127.0.0.1", App.CONFIG.port())) {
+      socket.setSoTimeout(5000);
+      OutputStream out = socket.getOutputStream();
+      DataInputStream in = new DataInputStream(socket.getInputStream());
+
+      // stream 1 is the HTTP/1.1 request that asks for the upgrade
+      out.write(("GET /status HTTP/1.1\r\n"
+          + "Host: 127.0.0.1\r\n"
+          + "Connection: Upgrade, HTTP2-Settings\r\n"
+          + "Upgrade: h2c\r\n"
+          + "HTTP2-Settings: \r\n"
+          + "\r\n").getBytes(StandardCharsets.US_ASCII));
+      out.flush();
+      assertEquals("HTTP/1.1 101 Switching Protocols", readLine(in));
+      while (!readLine(in).isEmpty()) {
+        // skip the remaining headers of the 101
+      }
+      out.write(PREFACE);
+      writeFrame(out, SETTINGS, 0, 0, new byte[0]);
+      Map<Integer, String> bodies = readResponses(in, out, 1);
+
+      // two streams in flight at once, then one more on the same connection after they completed
+      writeFrame(out, HEADERS, END_HEADERS | END_STREAM, 3, request("/status"));
+      writeFrame(out, HEADERS, END_HEADERS | END_STREAM, 5, request("/status/metrics"));
+      bodies.putAll(readResponses(in, out, 2));
+      writeFrame(out, HEADERS, END_HEADERS | END_STREAM, 7, request("/status"));
+      bodies.putAll(readResponses(in, out, 1));
+
+      assertEquals(4, bodies.size(), bodies.toString());
+      assertEquals("{\"status\": \"idle\"}\n", bodies.get(1));
+      assertTrue(bodies.get(3).startsWith("{\"status\": "), bodies.get(3));
+      assertTrue(bodies.get(5).contains("\"requests\": "), bodies.get(5));
+      assertEquals("{\"status\": \"idle\"}\n", bodies.get(7));
+    }
+  }
+
+  @Test
+  public void shouldAnswerEveryStreamOfPriorKnowledgeConnection() throws IOException {
+    try (Socket socket = new Socket("127.0.0.1", App.CONFIG.port())) {
+      socket.setSoTimeout(5000);
+      OutputStream out = socket.getOutputStream();
+      DataInputStream in = new DataInputStream(socket.getInputStream());
+      out.write(PREFACE);
+      writeFrame(out, SETTINGS, 0, 0, new byte[0]);
+
+      // two streams in flight at once, then one more on the same connection after they completed
+      writeFrame(out, HEADERS, END_HEADERS | END_STREAM, 1, request("/status"));
+      writeFrame(out, HEADERS, END_HEADERS | END_STREAM, 3, request("/status/metrics"));
+      Map<Integer, String> bodies = readResponses(in, out, 2);
+      writeFrame(out, HEADERS, END_HEADERS | END_STREAM, 5, request("/status"));
+      bodies.putAll(readResponses(in, out, 1));
+
+      assertEquals(3, bodies.size(), bodies.toString());
+      assertTrue(bodies.get(1).startsWith("{\"status\": "), bodies.get(1));
+      assertTrue(bodies.get(3).contains("\"requests\": "), bodies.get(3));
+      assertEquals("{\"status\": \"idle\"}\n", bodies.get(5));
+    }
+  }
+
+  private static String readLine(DataInputStream in) throws IOException {
+    StringBuilder line = new StringBuilder();
+    for (int c; (c = in.readUnsignedByte()) != '\n'; ) {
+      if (c != '\r') {
+        line.append((char) c);
+      }
+    }
+    return line.toString();
+  }
+
+  /**
+   * Reads frames until {@code streams} streams have ended, returning their bodies by stream id.
+   */
+  private static Map<Integer, String> readResponses(DataInputStream in, OutputStream out, int streams)
+      throws IOException {
+    Map<Integer, ByteArrayOutputStream> bodies = new HashMap<>();
+    for (int ended = 0; ended < streams; ) {
+      int length = in.readUnsignedByte() << 16 | in.readUnsignedShort();
+      int type = in.readUnsignedByte();
+      int flags = in.readUnsignedByte();
+      int stream = in.readInt() & Integer.MAX_VALUE;
+      byte[] payload = new byte[length];
+      in.readFully(payload);
+
+      if (type == SETTINGS && (flags & ACK) == 0) {
+        writeFrame(out, SETTINGS, ACK, 0, new byte[0]);
+      } else if (type == GOAWAY) {
+        throw new IOException("Connection closed by server after " + bodies.keySet());
+      } else if (type == HEADERS || type == DATA) {
+        ByteArrayOutputStream body = bodies.computeIfAbsent(stream, s -> new ByteArrayOutputStream());
+        if (type == DATA) {
+          body.write(payload);
+        }
+        if ((flags & END_STREAM) != 0) {
+          ended++;
+        }
+      }
+    }
+    Map<Integer, String> result = new HashMap<>();
+    bodies.forEach((stream, body) -> result.put(stream, new String(body.toByteArray(), StandardCharsets.UTF_8)));
+    return result;
+  }
+
+  /**
+   * Encodes a GET request as HPACK literals without indexing or Huffman coding, so no table state is shared
+   * between requests.
+   */
+  private static byte[] request(String path) {
+    ByteArrayOutputStream block = new ByteArrayOutputStream();
+    literal(block, ":method", "GET");
+    literal(block, ":scheme", "http");
+    literal(block, ":path", path);
+    literal(block, ":authority", "127.0.0.1");
+    return block.toByteArray();
+  }
+
+  private static void literal(ByteArrayOutputStream block, String name, String value) {
+    block.write(0);
+    block.write(name.length());
+    block.write(name.getBytes(StandardCharsets.US_ASCII), 0, name.length());
+    block.write(value.length());
+    block.write(value.getBytes(StandardCharsets.US_ASCII), 0, value.length());
+  }
+
+  private static void writeFrame(OutputStream out, int type, int flags, int stream, byte[] payload)
+      throws IOException {
+    byte[] header = {
+        (byte) (payload.length >>> 16), (byte) (payload.length >>> 8), (byte) payload.length,
+        (byte) type, (byte) flags,
+        (byte) (stream >>> 24), (byte) (stream >>> 16), (byte) (stream >>> 8), (byte) stream};
+    out.write(header);
+    out.write(payload);
+    out.flush();
+  }
+}
@@ -0,0 +1,40 @@
+package com.miguno;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void shouldMapValuesToContainingBucket() {
+    long[] values = {0, 7, 8, 15, 16, 1_000, 123_456_789, Long.MAX_VALUE};
+    for (long value : values) {
+      int index = LatencyHistogram.bucketIndex(value);
+      assertTrue(LatencyHistogram.bucketUpperBound(index) >= value, "upper bound for " + value);
+      assertTrue(index == 0 || LatencyHistogram.bucketUpperBound(index - 1) < value, "lower bound for " + value);
+    }
+  }
+
+  @Test
+  public void shouldReportPercentilesWithinBucketPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000);
+    }
+    assertEquals(1000, histogram.count());
+    assertWithinPrecision(500_000, histogram.percentile(0.50));
+    assertWithinPrecision(990_000, histogram.percentile(0.99));
+    assertWithinPrecision(1_000_000, histogram.percentile(1.0));
+  }
+
+  @Test
+  public void shouldReportZeroWhenEmpty() {
+    assertEquals(0, new LatencyHistogram().percentile(0.99));
+  }
+
+  private static void assertWithinPrecision(long expected, long actual) {
+    assertTrue(actual >= expected && actual <= expected * 1.125, "expected ~" + expected + " but was " + actual);
+  }
+}
@@ -0,0 +1,67 @@
+package com.miguno;
+
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LifecycleTest {
+
+  private final Lifecycle lifecycle = new Lifecycle(20, new String[] {"status", "status/metrics"}, 0, 5);
+
+  private HttpServer server;
+  private WebTarget target;
+
+  @BeforeEach
+  public void setUp() {
+    server = App.startServer(App.CONFIG, lifecycle);
+    target = ClientBuilder.newClient().target(App.BASE_URI);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    server.shutdownNow();
+  }
+
+  @Test
+  public void shouldBecomeReadyAfterWarmUp() {
+    Response before = target.path("ready").request().get();
+    assertEquals(503, before.getStatus());
+    assertEquals("{\"ready\": false}\n", before.readEntity(String.class));
+
+    lifecycle.warmUp();
+
+    Response after = target.path("ready").request().get();
+    assertEquals(200, after.getStatus());
+    assertEquals("{\"ready\": true}\n", after.readEntity(String.class));
+    assertTrue(target.path("status/metrics").request().get(String.class).contains("\"requests\": 20"));
+  }
+
+  @Test
+  public void shouldDrainWithoutWaitingForLongPolls() throws Exception {
+    lifecycle.warmUp();
+    Future<Response> poll = target.path("status/changes").queryParam("since", "idle").request().async().get();
+    TimeUnit.MILLISECONDS.sleep(200);
+
+    long start = System.nanoTime();
+    lifecycle.shutdown();
+
+    assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 5);
+    assertTrue(poll.isDone());
+    assertFalse(lifecycle.ready());
+    // the listener is closed, so new connections are refused
+    assertThrows(ProcessingException.class, () -> target.path("status").request().get());
+  }
+}
@@ -0,0 +1,64 @@
+package com.miguno;
+
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpServerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RequestMetricsFilterTest {
+
+  private HttpServer server;
+  private WebTarget target;
+
+  @Path("failing")
+  public static class Failing {
+    @GET
+    public String fail() {
+      throw new IllegalStateException("unmapped");
+    }
+  }
+
+  @BeforeEach
+  public void setUp() {
+    server = GrizzlyHttpServerFactory.createHttpServer(URI.create(App.BASE_URI),
+        App.createResourceConfig(App.CONFIG).register(Failing.class));
+    target = ClientBuilder.newClient().target(App.BASE_URI);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    server.shutdownNow();
+  }
+
+  @Test
+  public void shouldCompleteRequestsThatThrow() {
+    for (int i = 0; i < 3; i++) {
+      assertEquals(500, target.path("failing").request().get().getStatus());
+    }
+    String metrics = target.path("status/metrics").request().get(String.class);
+    // only the metrics request itself is still in flight
+    assertTrue(metrics.contains("\"requests\": {\"inFlight\": 1,"), metrics);
+    assertTrue(metrics.contains("\"Failing#fail\": {\"requests\": 3, \"errors\": 3"), metrics);
+    assertEquals("{\"status\": \"idle\"}\n", target.path("status").request().get(String.class));
+  }
+
+  @Test
+  public void shouldReleaseAdmissionOfRequestsThatThrow() {
+    for (int i = 0; i < 3; i++) {
+      assertEquals(500, target.path("failing").request().get().getStatus());
+    }
+    String metrics = target.path("status/metrics").request().get(String.class);
+    assertTrue(metrics.contains("\"admission\": {\"Failing\": {\"limit\": "), metrics);
+    assertTrue(metrics.contains(", \"inFlight\": 0, \"admitted\": 3, \"rejected\": 0}"), metrics);
+  }
+}
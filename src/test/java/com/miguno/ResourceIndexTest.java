@@ -0,0 +1,23 @@
+package com.miguno;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResourceIndexTest {
+
+  @Test
+  public void shouldIndexResourcesAtBuildTime() {
+    Set<Class<?>> indexed = ResourceIndex.load();
+    assertNotNull(indexed, ResourceIndex.LOCATION + " missing, was process-classes skipped?");
+    assertTrue(indexed.contains(Status.class));
+    assertTrue(indexed.contains(Assets.class));
+    // registered as instances by App, must not be registered a second time
+    assertFalse(indexed.contains(RequestMetricsFilter.class));
+    assertFalse(indexed.contains(CompressionInterceptor.class));
+  }
+}
@@ -0,0 +1,49 @@
+package com.miguno;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ServerConfigTest {
+
+  @AfterEach
+  public void tearDown() {
+    System.clearProperty("server.port");
+    System.clearProperty("server.worker.core");
+    System.clearProperty("server.worker.max");
+    System.clearProperty("server.virtual-threads");
+  }
+
+  @Test
+  public void shouldDefaultToExistingEndpoint() {
+    ServerConfig config = ServerConfig.fromEnvironment();
+    assertEquals("http://0.0.0.0:8123/", config.baseUri());
+    assertFalse(config.virtualThreads());
+    assertTrue(config.workerCorePoolSize() <= config.workerMaxPoolSize());
+  }
+
+  @Test
+  public void shouldReadSystemProperties() {
+    System.setProperty("server.port", "9000");
+    System.setProperty("server.worker.core", "4");
+    System.setProperty("server.worker.max", "16");
+    System.setProperty("server.virtual-threads", "true");
+
+    ServerConfig config = ServerConfig.fromEnvironment();
+    assertEquals(9000, config.port());
+    assertEquals(4, config.workerCorePoolSize());
+    assertEquals(16, config.workerMaxPoolSize());
+    assertTrue(config.virtualThreads());
+  }
+
+  @Test
+  public void shouldRejectInvalidPoolSizes() {
+    System.setProperty("server.worker.core", "32");
+    System.setProperty("server.worker.max", "8");
+    assertThrows(IllegalArgumentException.class, ServerConfig::fromEnvironment);
+  }
+}
@@ -0,0 +1,126 @@
+package com.miguno;
+
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Open-loop load test against the in-process server.
+ *
+ * Requests are issued at a constant arrival rate regardless of how fast responses come back, and latency is
+ * measured from the time a request was scheduled to be sent rather than when a client thread got around to
+ * sending it. A stalled server therefore shows up as queueing delay in the histogram instead of silently
+ * lowering the request rate (coordinated omission).
+ *
+ * Tunable with system properties, e.g. {@code mvn test -Dtest=StatusLoadTest -Dloadtest.rate=2000}:
+ * loadtest.rate (requests/s), loadtest.warmup.seconds, loadtest.duration.seconds, loadtest.concurrency,
+ * loadtest.budget.p99.millis and loadtest.budget.error.rate.
+ */
+public class StatusLoadTest {
+
+  private static final int RATE = Integer.getInteger("loadtest.rate", 200);
+  private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmup.seconds", 1);
+  private static final int DURATION_SECONDS = Integer.getInteger("loadtest.duration.seconds", 3);
+  private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 16);
+  private static final long P99_BUDGET_MILLIS = Long.getLong("loadtest.budget.p99.millis", 250);
+  private static final double ERROR_RATE_BUDGET =
+      Double.parseDouble(System.getProperty("loadtest.budget.error.rate", "0.01"));
+
+  private HttpServer server;
+  private ExecutorService clients;
+
+  @BeforeEach
+  public void setUp() {
+    server = App.startServer();
+    clients = Executors.newFixedThreadPool(CONCURRENCY);
+  }
+
+  @AfterEach
+  public void tearDown() throws InterruptedException {
+    clients.shutdownNow();
+    clients.awaitTermination(5, TimeUnit.SECONDS);
+    server.shutdownNow();
+  }
+
+  @Test
+  public void statusShouldStayWithinLatencyBudget() throws Exception {
+    URL url = new URL(App.BASE_URI.replace("0.0.0.0", "127.0.0.1") + "status");
+
+    run(url, WARMUP_SECONDS, new LatencyHistogram(), new LongAdder());
+
+    LatencyHistogram latency = new LatencyHistogram();
+    LongAdder errors = new LongAdder();
+    long started = System.nanoTime();
+    long sent = run(url, DURATION_SECONDS, latency, errors);
+    clients.shutdown();
+    assertTrue(clients.awaitTermination(30, TimeUnit.SECONDS), "requests still outstanding after 30s");
+    double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+    long completed = latency.count();
+    double errorRate = completed == 0 ? 1.0 : errors.sum() / (double) completed;
+    double p99Millis = latency.percentile(0.99) / 1e6;
+    System.out.println(String.format(
+        "StatusLoadTest: rate=%d/s concurrency=%d sent=%d completed=%d throughput=%.1f/s errors=%d (%.2f%%)",
+        RATE, CONCURRENCY, sent, completed, completed / elapsedSeconds, errors.sum(), errorRate * 100));
+    for (double quantile : new double[] {0.5, 0.9, 0.99, 0.999, 1.0}) {
+      System.out.println(String.format("  p%-6s %10.3f ms", quantile * 100, latency.percentile(quantile) / 1e6));
+    }
+
+    assertTrue(p99Millis <= P99_BUDGET_MILLIS,
+        String.format("p99 latency %.3f ms exceeds budget of %d ms", p99Millis, P99_BUDGET_MILLIS));
+    assertTrue(errorRate <= ERROR_RATE_BUDGET,
+        String.format("error rate %.4f exceeds budget of %.4f", errorRate, ERROR_RATE_BUDGET));
+  }
+
+  /**
+   * Schedules requests at a fixed interval for the given duration and returns how many were sent.
+   */
+  private long run(URL url, int seconds, LatencyHistogram latency, LongAdder errors) {
+    long interval = TimeUnit.SECONDS.toNanos(1) / RATE;
+    long start = System.nanoTime();
+    long total = (long) RATE * seconds;
+    for (long i = 0; i < total; i++) {
+      long intendedStart = start + i * interval;
+      long wait = intendedStart - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      clients.execute(() -> {
+        boolean ok = get(url);
+        latency.record(System.nanoTime() - intendedStart);
+        if (!ok) {
+          errors.increment();
+        }
+      });
+    }
+    return total;
+  }
+
+  private static boolean get(URL url) {
+    try {
+      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+      try (InputStream in = connection.getInputStream()) {
+        byte[] buffer = new byte[512];
+        while (in.read(buffer) != -1) {
+          // drain so the connection can be reused
+        }
+      }
+      return connection.getResponseCode() == 200;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+}
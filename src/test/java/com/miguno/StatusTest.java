@@ -8,8 +8,19 @@ import org.junit.jupiter.api.Test;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.sse.InboundSseEvent;
+import javax.ws.rs.sse.SseEventSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class StatusTest {
 
@@ -33,4 +44,46 @@ public class StatusTest {
     String responseMsg = target.path("status").request().get(String.class);
     assertEquals("{\"status\": \"idle\"}\n", responseMsg);
   }
+
+  @Test
+  public void shouldReportRequestMetrics() {
+    target.path("status").request().get(String.class);
+    String responseMsg = target.path("status/metrics").request().get(String.class);
+    assertTrue(responseMsg.contains("\"Status#statusInformation\": {\"requests\": 1, \"errors\": 0"), responseMsg);
+    assertTrue(responseMsg.contains("\"connections\": {\"open\": "), responseMsg);
+  }
+
+  @Test
+  public void shouldAnswerLongPollWhenStateDiffers() {
+    assertEquals("{\"status\": \"idle\"}\n", target.path("status/changes").request().get(String.class));
+    assertEquals("{\"status\": \"idle\"}\n",
+        target.path("status/changes").queryParam("since", "busy").request().get(String.class));
+  }
+
+  @Test
+  public void shouldNotCountParkedLongPollsAsLoad() throws Exception {
+    List<Future<String>> polls = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      polls.add(target.path("status/changes").queryParam("since", "idle").request().async().get(String.class));
+    }
+    TimeUnit.MILLISECONDS.sleep(300);
+    for (Future<String> poll : polls) {
+      assertFalse(poll.isDone());
+    }
+    assertEquals("{\"status\": \"idle\"}\n", target.path("status").request().get(String.class));
+    assertTrue(target.path("status/metrics").request().get(String.class).startsWith("{\"status\": \"idle\""));
+  }
+
+  @Test
+  public void shouldStreamCurrentStatus() throws InterruptedException {
+    BlockingQueue<InboundSseEvent> events = new LinkedBlockingQueue<>();
+    try (SseEventSource source = SseEventSource.target(target.path("status/stream")).build()) {
+      source.register(events::add);
+      source.open();
+      InboundSseEvent event = events.poll(5, TimeUnit.SECONDS);
+      assertNotNull(event, "no event received");
+      assertEquals("status", event.getName());
+      assertEquals("{\"status\": \"idle\"}\n", event.readData());
+    }
+  }
 }